@@ -0,0 +1,58 @@
+package benchmark;
+
+import model.GameModel;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * The class <b>BoardState</b> holds the board parameters shared by the benchmarks:
+ * the size of the board, as "widthxheight", and the density of mines.
+ */
+@State(Scope.Thread)
+public class BoardState {
+
+    @Param({"30x16", "200x200", "2000x2000"})
+    public String size;
+
+    @Param({"0.05", "0.2"})
+    public double density;
+
+    /**
+     * Returns the width of the board described by the size parameter.
+     *
+     * @return the width of the board
+     */
+    int width() {
+        return Integer.parseInt(size.substring(0, size.indexOf('x')));
+    }
+
+    /**
+     * Returns the height of the board described by the size parameter.
+     *
+     * @return the height of the board
+     */
+    int height() {
+        return Integer.parseInt(size.substring(size.indexOf('x') + 1));
+    }
+
+    /**
+     * Returns the number of mines given by the density, at least one.
+     *
+     * @return the number of mines
+     */
+    int numberOfMines() {
+        return Math.max(1, (int) (width() * height() * density));
+    }
+
+    /**
+     * Creates a model with the parameters of the benchmark and a fixed seed generator.
+     *
+     * @return a new model
+     */
+    GameModel newModel() {
+        return new GameModel(width(), height(), numberOfMines(), new Random(42));
+    }
+}
@@ -0,0 +1,57 @@
+package benchmark;
+
+import model.ChunkedBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a cascade of <b>ChunkedBoard</b> crossing many chunks, on a new board for each invocation:
+ * the chunks are generated as the cascade reaches them, with the chunks in memory bounded or not.
+ * A density below the percolation threshold makes the zone of (0,0) unbounded, so the cascade is cut at CASCADE dots.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChunkedBoardBenchmark {
+
+    private static final int CASCADE = 200_000;
+    private static final double DENSITY = 0.04;
+
+    /**
+     * Memory bound of the chunks, in bytes: the small bound spills most of the chunks.
+     */
+    @Param({"262144", "1073741824"})
+    public long memoryBound;
+
+    private Path spillPath;
+    private ChunkedBoard board;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        spillPath = Files.createTempFile("chunks", ".spill");
+    }
+
+    @Setup(Level.Invocation)
+    public void newBoard() throws IOException {
+        board = new ChunkedBoard(seed++, DENSITY, memoryBound, spillPath);
+        board.setMaxCascade(CASCADE);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeBoard() throws IOException {
+        board.close();
+    }
+
+    @Benchmark
+    public int cascade() {
+        return board.reveal(0, 0);
+    }
+}
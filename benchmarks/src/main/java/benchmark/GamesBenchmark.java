@@ -0,0 +1,69 @@
+package benchmark;
+
+import model.GameEngine;
+import model.MoveResult;
+import model.Solver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the number of complete games per second played through the GameEngine,
+ * by a player that reveals random dots until the game is over, and by a player following the Solver.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GamesBenchmark extends BoardState {
+
+    private GameEngine gameEngine;
+    private Random player;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameEngine = new GameEngine(newModel());
+        player = new Random(42);
+    }
+
+    @Benchmark
+    public int randomPlayer() {
+        gameEngine.reset(seed++);
+        int width = gameEngine.getModel().getWidth();
+        int height = gameEngine.getModel().getHeight();
+        int moves = 0;
+        while (!gameEngine.isOver()) {
+            MoveResult result = gameEngine.reveal(player.nextInt(width), player.nextInt(height));
+            if (result.getOutcome() != MoveResult.Outcome.IGNORED) {
+                moves++;
+            }
+        }
+        return moves;
+    }
+
+    @Benchmark
+    public int solverPlayer() {
+        gameEngine.reset(seed++);
+        Solver solver = gameEngine.getSolver();
+        int width = gameEngine.getModel().getWidth();
+        int moves = 0;
+        gameEngine.reveal(width / 2, gameEngine.getModel().getHeight() / 2);
+        while (!gameEngine.isOver()) {
+            solver.solve();
+            int[] safeMoves = solver.nextSafeMoves();
+            if (safeMoves.length == 0) {
+                int index = solver.bestGuess();
+                gameEngine.reveal(index % width, index / width);
+                moves++;
+            }
+            for (int k = 0; k < safeMoves.length && !gameEngine.isOver(); k++) {
+                gameEngine.reveal(safeMoves[k] % width, safeMoves[k] / width);
+                moves++;
+            }
+        }
+        return moves;
+    }
+}
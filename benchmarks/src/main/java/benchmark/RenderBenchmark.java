@@ -0,0 +1,47 @@
+package benchmark;
+
+import model.GameModel;
+import org.openjdk.jmh.annotations.*;
+import view.BoardPanel;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures painting a 1280x960 viewport of the painted board with the headless toolkit.
+ * GameView itself is a JFrame and cannot be created headless, so the board component is painted directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark extends BoardState {
+
+    private BoardPanel boardPanel;
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameModel gameModel = newModel();
+        gameModel.uncoverAll();
+        boardPanel = new BoardPanel(gameModel);
+        boardPanel.setSize(boardPanel.getPreferredSize());
+        image = new BufferedImage(1280, 960, BufferedImage.TYPE_INT_ARGB);
+        graphics = image.createGraphics();
+        graphics.setClip(0, 0, image.getWidth(), image.getHeight());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage paintViewport() {
+        boardPanel.paint(graphics);
+        return image;
+    }
+}
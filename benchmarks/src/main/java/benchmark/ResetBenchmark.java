@@ -0,0 +1,41 @@
+package benchmark;
+
+import model.GameModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures <b>GameModel.reset</b>: clearing the board, placing the mines and counting the neighbours,
+ * with the neighbours counted at reset or on demand.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResetBenchmark extends BoardState {
+
+    private GameModel eager;
+    private GameModel lazy;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        eager = newModel();
+        lazy = newModel();
+        lazy.setLazyNeighbours(true);
+    }
+
+    @Benchmark
+    public GameModel reset() {
+        eager.reset(seed++);
+        return eager;
+    }
+
+    @Benchmark
+    public GameModel resetLazyNeighbours() {
+        lazy.reset(seed++);
+        return lazy;
+    }
+}
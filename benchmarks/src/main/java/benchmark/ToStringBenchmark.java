@@ -0,0 +1,56 @@
+package benchmark;
+
+import model.BoardText;
+import model.GameModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the text dump of the board built by <b>GameModel.toString</b>,
+ * and the same text streamed by <b>BoardText.write</b> to a channel that discards it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToStringBenchmark extends BoardState {
+
+    private GameModel gameModel;
+    private final WritableByteChannel discard = new WritableByteChannel() {
+        @Override
+        public int write(ByteBuffer src) {
+            int length = src.remaining();
+            src.position(src.limit());
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameModel = newModel();
+    }
+
+    @Benchmark
+    public String toStringBoard() {
+        return gameModel.toString();
+    }
+
+    @Benchmark
+    public void streamBoard() throws IOException {
+        BoardText.write(gameModel, BoardText.View.BOTH, discard);
+    }
+}
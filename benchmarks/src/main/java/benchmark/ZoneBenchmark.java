@@ -0,0 +1,64 @@
+package benchmark;
+
+import model.GameModel;
+import model.SpanList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cascade that uncovers the zone around a blank dot, dot by dot (<b>clearZone</b>)
+ * and run by run (<b>revealZone</b>). The board is reset to the same layout before each invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZoneBenchmark extends BoardState {
+
+    private static final long SEED = 7;
+
+    private GameModel gameModel;
+    private final SpanList spans = new SpanList();
+    private int startX;
+    private int startY;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameModel = newModel();
+        gameModel.reset(SEED);
+        // Start from the blank dot that opens the largest zone among a few candidates
+        int largest = -1;
+        for (int k = 0; k < 16; k++) {
+            int x = (int) ((k * 0.618034 % 1) * gameModel.getWidth());
+            int y = (int) ((k * 0.381966 % 1) * gameModel.getHeight());
+            if (!gameModel.isMined(x, y) && gameModel.isBlank(x, y)) {
+                gameModel.reset(SEED);
+                int opened = gameModel.clearZone(x, y);
+                if (opened > largest) {
+                    largest = opened;
+                    startX = x;
+                    startY = y;
+                }
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void resetBoard() {
+        gameModel.reset(SEED);
+        gameModel.uncover(startX, startY);
+        spans.clear();
+    }
+
+    @Benchmark
+    public int clearZone() {
+        return gameModel.clearZone(startX, startY);
+    }
+
+    @Benchmark
+    public int revealZone() {
+        return gameModel.revealZone(startX, startY, spans);
+    }
+}
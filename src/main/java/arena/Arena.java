@@ -0,0 +1,189 @@
+package arena;
+
+import simulation.Simulator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The class <b>Arena</b> runs a competition between bots: every bot plays the same seeded games,
+ * each game at its own Table and on its own thread, and the arena reports the statistics of each bot.
+ * <p>
+ * The games run on virtual threads when the JVM provides them (Java 21 and later), so tens of thousands of games
+ * can wait on their blocking moves at once, each costing a small heap-allocated stack instead of a platform thread.
+ * The arena is compiled for older JVMs as well, on which the games run on a bounded pool of platform threads instead:
+ * only as many games as threads are then played at once.
+ * <p>
+ * The first games of each bot can be recorded in journals, to be audited and replayed with a JournalReplay.
+ */
+public class Arena {
+
+    private final int width;
+    private final int height;
+    private final int numberOfMines;
+    private final long latencyMillis;
+    private final List<String> names = new ArrayList<>();
+    private final List<Supplier<Bot>> factories = new ArrayList<>();
+    private Path journalDirectory;
+    private int journalGames;
+
+    /**
+     * Constructor used for initializing an arena without any bot.
+     *
+     * @param width         the width of the boards
+     * @param height        the height of the boards
+     * @param numberOfMines the number of mines of the boards
+     * @param latencyMillis the time each move blocks its bot, in milliseconds, to simulate a remote engine
+     */
+    public Arena(int width, int height, int numberOfMines, long latencyMillis) {
+        this.width = width;
+        this.height = height;
+        this.numberOfMines = numberOfMines;
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * Adds a bot to the competition.
+     *
+     * @param name    the name of the bot
+     * @param factory the factory creating the bot of each game
+     */
+    public void addBot(String name, Supplier<Bot> factory) {
+        names.add(name);
+        factories.add(factory);
+    }
+
+    /**
+     * Records the first games of each bot in journals, written to the given directory as <i>bot</i>-<i>game</i>.mswj.
+     * Each journal keeps a file open while its game is played, so only a limited number of games should be recorded.
+     *
+     * @param directory the directory of the journals, which must exist
+     * @param games     the number of games recorded for each bot
+     */
+    public void setJournal(Path directory, int games) {
+        journalDirectory = directory;
+        journalGames = games;
+    }
+
+    /**
+     * Returns true if the games run on virtual threads, false if they run on a pool of platform threads.
+     *
+     * @return true if the JVM provides virtual threads
+     */
+    public static boolean hasVirtualThreads() {
+        return virtualThreadFactory() != null;
+    }
+
+    /**
+     * Plays the given number of games with every bot, all the games at once, and waits for their end.
+     * The game of a given number has the same seed for all the bots.
+     *
+     * @param games   the number of games played by each bot
+     * @param seed    the seed of the competition
+     * @param threads the number of platform threads used when virtual threads are not available
+     * @return the statistics of each bot, in the order in which the bots were added
+     * @throws InterruptedException if the thread is interrupted while waiting for the games
+     */
+    public List<BotStats> run(int games, long seed, int threads) throws InterruptedException {
+        List<BotStats> stats = new ArrayList<>();
+        for (String name : names) {
+            stats.add(new BotStats(name));
+        }
+        ExecutorService executor = newExecutor(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>(games * names.size());
+            for (int game = 0; game < games; game++) {
+                long gameSeed = Simulator.gameSeed(seed, game);
+                for (int k = 0; k < names.size(); k++) {
+                    BotStats botStats = stats.get(k);
+                    Supplier<Bot> factory = factories.get(k);
+                    Path journal = journalDirectory != null && game < journalGames
+                            ? journalDirectory.resolve(names.get(k) + "-" + game + ".mswj") : null;
+                    futures.add(executor.submit(() -> play(factory, botStats, gameSeed, journal)));
+                }
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("A game of the arena failed", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        long elapsedTime = System.nanoTime() - start;
+        for (BotStats botStats : stats) {
+            botStats.setElapsedTime(elapsedTime);
+        }
+        return stats;
+    }
+
+    /**
+     * Plays one game of a bot, recording it in the given journal if there is one.
+     * An exception thrown by the bot loses the game and is counted as an error.
+     * A journal that cannot be written fails the arena.
+     */
+    private void play(Supplier<Bot> factory, BotStats stats, long seed, Path journal) {
+        Table table = new Table(width, height, numberOfMines, stats, latencyMillis);
+        boolean failed = false;
+        try {
+            table.start(seed, journal);
+            factory.get().play(table);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot record the game in " + journal, e);
+        } catch (RuntimeException e) {
+            failed = true;
+        } finally {
+            try {
+                table.closeJournal();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot record the game in " + journal, e);
+            }
+        }
+        stats.addGame(!failed && table.isWon(), table.getNumberOfMoves(), table.getThinkTime(), failed);
+    }
+
+    /**
+     * Creates the executor of the games: a virtual thread per game if the JVM provides them,
+     * otherwise a fixed pool of platform threads.
+     */
+    private static ExecutorService newExecutor(int threads) {
+        Method factory = virtualThreadFactory();
+        if (factory != null) {
+            try {
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // Fall back to platform threads
+            }
+        }
+        return Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Looks up Executors.newVirtualThreadPerTaskExecutor, which only exists from Java 21 on.
+     * It is called through reflection so that the arena still compiles and runs on Java 8.
+     */
+    private static Method virtualThreadFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
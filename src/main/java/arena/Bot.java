@@ -0,0 +1,18 @@
+package arena;
+
+/**
+ * A <b>Bot</b> plays Minesweeper games in the Arena, through the blocking move API of a Table.
+ * The arena creates a new bot for each game and runs it on its own thread, so a bot may keep the state of its game
+ * in its fields, and may simply block between its moves.
+ */
+public interface Bot {
+
+    /**
+     * Plays a complete game: the bot moves until the table reports that the game is over.
+     * Returning before the end of the game forfeits it.
+     *
+     * @param table the table of the game
+     * @throws InterruptedException if the arena is stopped while the bot is waiting
+     */
+    void play(Table table) throws InterruptedException;
+}
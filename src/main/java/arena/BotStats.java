@@ -0,0 +1,132 @@
+package arena;
+
+import metrics.Histogram;
+
+/**
+ * The class <b>BotStats</b> gathers the results of the games of one bot in the Arena.
+ * The games of a bot finish on many threads at once, so the totals are updated under the lock of the instance,
+ * once per game, and the think times are recorded in a lock-free Histogram.
+ */
+public class BotStats {
+
+    private final String name;
+    private final Histogram thinkTime;
+    private long games;
+    private long wins;
+    private long moves;
+    private long errors;
+    private long totalThinkTime;
+    private long elapsedTime;
+
+    /**
+     * Constructor used for initializing the empty statistics of a bot.
+     *
+     * @param name the name of the bot
+     */
+    BotStats(String name) {
+        this.name = name;
+        thinkTime = new Histogram(name + ".think", "ns");
+    }
+
+    /**
+     * Getter method for the name of the bot.
+     *
+     * @return the name of the bot
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter method for the histogram of the think time of each move.
+     *
+     * @return the think times, in nanoseconds
+     */
+    public Histogram getThinkTime() {
+        return thinkTime;
+    }
+
+    /**
+     * Records a finished game.
+     *
+     * @param won            true if the game was won
+     * @param numberOfMoves  the number of moves played
+     * @param totalThinkTime the time spent thinking during the game, in nanoseconds
+     * @param failed         true if the bot failed with an exception
+     */
+    synchronized void addGame(boolean won, int numberOfMoves, long totalThinkTime, boolean failed) {
+        games++;
+        if (won) {
+            wins++;
+        }
+        moves += numberOfMoves;
+        this.totalThinkTime += totalThinkTime;
+        if (failed) {
+            errors++;
+        }
+    }
+
+    /**
+     * Records the duration of the arena, over which the moves per second are computed.
+     *
+     * @param elapsedTime the duration of the arena, in nanoseconds
+     */
+    synchronized void setElapsedTime(long elapsedTime) {
+        this.elapsedTime = elapsedTime;
+    }
+
+    public synchronized long getGames() {
+        return games;
+    }
+
+    public synchronized long getWins() {
+        return wins;
+    }
+
+    public synchronized long getMoves() {
+        return moves;
+    }
+
+    public synchronized long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Getter method for the rate of games won.
+     *
+     * @return the number of wins divided by the number of games, 0 if no game was played
+     */
+    public synchronized double getWinRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    /**
+     * Getter method for the mean think time of a move.
+     *
+     * @return the mean think time, in nanoseconds
+     */
+    public synchronized double getMeanThinkTime() {
+        return moves == 0 ? 0 : (double) totalThinkTime / moves;
+    }
+
+    /**
+     * Getter method for the number of moves played per second of the arena, by all the games of the bot together.
+     *
+     * @return the number of moves per second
+     */
+    public synchronized double getMovesPerSecond() {
+        return elapsedTime == 0 ? 0 : moves * 1e9 / elapsedTime;
+    }
+
+    /**
+     * Builds a one-line summary of the statistics.
+     *
+     * @return the summary
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format("%-10s games=%d won=%.2f%% moves=%d moves/s=%.0f think mean=%.1f us p99=%.1f us errors=%d",
+                name, games, 100 * getWinRate(), moves, getMovesPerSecond(), getMeanThinkTime() / 1e3,
+                thinkTime.getP99() / 1e3, errors);
+    }
+}
@@ -0,0 +1,21 @@
+package arena;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A <b>RandomBot</b> reveals covered dots at random until the game is over. It is the baseline of the competitions.
+ */
+public class RandomBot implements Bot {
+
+    @Override
+    public void play(Table table) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (!table.isOver()) {
+            int x = random.nextInt(table.getWidth());
+            int y = random.nextInt(table.getHeight());
+            if (table.isCovered(x, y)) {
+                table.reveal(x, y);
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package arena;
+
+import model.Solver;
+
+/**
+ * A <b>SolverBot</b> plays like the SolverPlayer of the simulations: it starts in the middle of the board,
+ * then reveals every safe dot found by the solver of its table, and only guesses the dot least likely to be mined
+ * when no dot is safe.
+ */
+public class SolverBot implements Bot {
+
+    @Override
+    public void play(Table table) throws InterruptedException {
+        int width = table.getWidth();
+        table.reveal(width / 2, table.getHeight() / 2);
+        Solver solver = table.getSolver();
+        while (!table.isOver()) {
+            solver.solve();
+            int[] safeMoves = solver.nextSafeMoves();
+            if (safeMoves.length == 0) {
+                int guess = solver.bestGuess();
+                table.reveal(guess % width, guess / width);
+            }
+            for (int k = 0; k < safeMoves.length && !table.isOver(); k++) {
+                table.reveal(safeMoves[k] % width, safeMoves[k] / width);
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package arena;
+
+import model.GameEngine;
+import model.GameModel;
+import model.MoveJournal;
+import model.MoveResult;
+import model.Solver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * A <b>Table</b> is the game of one bot in the Arena. It only shows the bot what a player would see,
+ * and plays its moves on a GameEngine. Each move blocks the calling thread for the latency of the table, if any,
+ * as a remote engine would, and the time spent by the bot between two moves is recorded as its think time.
+ * The moves of the game can be recorded in a MoveJournal, to be replayed afterwards.
+ * A table is used by a single thread, the one of its bot.
+ */
+public class Table {
+
+    private static final int JOURNAL_CHECKPOINT_INTERVAL = 64;
+
+    private final GameEngine gameEngine;
+    private final GameModel gameModel;
+    private final BotStats stats;
+    private final long latencyMillis;
+    private final int maxMoves;
+    private MoveJournal journal;
+    private long thinkStart;
+    private long thinkTime;
+    private int numberOfMoves;
+    private boolean won;
+
+    /**
+     * Constructor used for initializing a table. The mines of each game are placed by its first reveal,
+     * which always opens a zone.
+     *
+     * @param width         the width of the board
+     * @param height        the height of the board
+     * @param numberOfMines the number of mines to hide in the board
+     * @param stats         the statistics of the bot playing at the table
+     * @param latencyMillis the time each move blocks the bot, in milliseconds
+     */
+    Table(int width, int height, int numberOfMines, BotStats stats, long latencyMillis) {
+        gameModel = new GameModel(width, height, numberOfMines, new Random(), false);
+        gameModel.setDeferredPlacement(true);
+        gameModel.setSafeNeighbourhood(true);
+        gameEngine = new GameEngine(gameModel);
+        this.stats = stats;
+        this.latencyMillis = latencyMillis;
+        maxMoves = 4 * gameModel.getWidth() * gameModel.getHeight();
+    }
+
+    /**
+     * Getter method for the width of the board.
+     *
+     * @return the width of the board
+     */
+    public int getWidth() {
+        return gameModel.getWidth();
+    }
+
+    /**
+     * Getter method for the height of the board.
+     *
+     * @return the height of the board
+     */
+    public int getHeight() {
+        return gameModel.getHeight();
+    }
+
+    /**
+     * Getter method for the number of mines hidden in the board.
+     *
+     * @return the number of mines
+     */
+    public int getNumberOfMines() {
+        return gameModel.getNumberOfMines();
+    }
+
+    /**
+     * Returns true if the game is over, lost or won.
+     *
+     * @return true if the game is over
+     */
+    public boolean isOver() {
+        return gameEngine.isOver();
+    }
+
+    /**
+     * Returns true if the game has been won.
+     *
+     * @return true if the game is won
+     */
+    public boolean isWon() {
+        return won;
+    }
+
+    /**
+     * Returns true if the dot at location (x,y) is covered.
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     * @return true if the dot is covered
+     */
+    public boolean isCovered(int x, int y) {
+        return gameModel.isCovered(x, y);
+    }
+
+    /**
+     * Returns true if the dot at location (x,y) has a flag.
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     * @return true if the dot has a flag
+     */
+    public boolean isFlag(int x, int y) {
+        return gameModel.isFlag(x, y);
+    }
+
+    /**
+     * Returns the number of mines around the uncovered dot at location (x,y).
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     * @return the number of neighbouring mines, or -1 if the dot is covered
+     */
+    public int getNeighbouringMines(int x, int y) {
+        return gameModel.isCovered(x, y) ? -1 : gameModel.getNeighbouringMines(x, y);
+    }
+
+    /**
+     * Returns the solver following this game, for the bots that build on it. The solver only reads the uncovered dots.
+     *
+     * @return the solver of the game
+     */
+    public Solver getSolver() {
+        return gameEngine.getSolver();
+    }
+
+    /**
+     * Reveals the dot at location (x,y), and blocks until the move has been played.
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     * @return the outcome of the move
+     * @throws InterruptedException if the arena is stopped while the move is played
+     */
+    public MoveResult.Outcome reveal(int x, int y) throws InterruptedException {
+        beginMove(x, y);
+        return endMove(gameEngine.reveal(x, y).getOutcome());
+    }
+
+    /**
+     * Puts or removes the flag on the dot at location (x,y), and blocks until the move has been played.
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     * @return true if the flag was changed
+     * @throws InterruptedException if the arena is stopped while the move is played
+     */
+    public boolean toggleFlag(int x, int y) throws InterruptedException {
+        beginMove(x, y);
+        boolean changed = gameEngine.toggleFlag(x, y);
+        endMove(changed ? MoveResult.Outcome.SAFE : MoveResult.Outcome.IGNORED);
+        return changed;
+    }
+
+    /**
+     * Chords on the dot at location (x,y), and blocks until the move has been played.
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     * @return the outcome of the move
+     * @throws InterruptedException if the arena is stopped while the move is played
+     */
+    public MoveResult.Outcome chord(int x, int y) throws InterruptedException {
+        beginMove(x, y);
+        return endMove(gameEngine.chord(x, y).getOutcome());
+    }
+
+    /**
+     * Starts the game, recording its moves in a journal if one is given.
+     * The think time of the first move is counted from now on.
+     *
+     * @param seed    the seed of the game
+     * @param journal the file of the journal of the game, replaced if it exists, or null to not record it
+     * @throws IOException if the journal cannot be written
+     */
+    void start(long seed, Path journal) throws IOException {
+        gameEngine.reset(seed);
+        if (journal != null) {
+            this.journal = new MoveJournal(journal, gameModel, true, JOURNAL_CHECKPOINT_INTERVAL);
+            gameEngine.setJournal(this.journal);
+        }
+        thinkStart = System.nanoTime();
+    }
+
+    /**
+     * Writes and closes the journal of the game, if it is recorded.
+     *
+     * @throws IOException if the journal cannot be written
+     */
+    void closeJournal() throws IOException {
+        if (journal != null) {
+            gameEngine.setJournal(null);
+            journal.close();
+            journal = null;
+        }
+    }
+
+    int getNumberOfMoves() {
+        return numberOfMoves;
+    }
+
+    long getThinkTime() {
+        return thinkTime;
+    }
+
+    /**
+     * Records the think time of a move, checks it, and waits for the latency of the table.
+     */
+    private void beginMove(int x, int y) throws InterruptedException {
+        long think = System.nanoTime() - thinkStart;
+        thinkTime += think;
+        stats.getThinkTime().record(think);
+        if (x < 0 || y < 0 || x >= gameModel.getWidth() || y >= gameModel.getHeight()) {
+            throw new IllegalArgumentException("Move out of the board: (" + x + "," + y + ")");
+        }
+        if (++numberOfMoves > maxMoves) {
+            throw new IllegalStateException("Too many moves: " + numberOfMoves);
+        }
+        if (latencyMillis > 0) {
+            Thread.sleep(latencyMillis);
+        }
+    }
+
+    private MoveResult.Outcome endMove(MoveResult.Outcome outcome) {
+        if (outcome == MoveResult.Outcome.WON) {
+            won = true;
+        }
+        thinkStart = System.nanoTime();
+        return outcome;
+    }
+}
@@ -1,7 +1,12 @@
 package controller;
 
-import model.DotInfo;
+import metrics.Metrics;
+import model.GameEngine;
 import model.GameModel;
+import model.MoveResult;
+import model.NoGuessGenerator;
+import model.Solver;
+import view.BoardPanel;
 import view.DotButton;
 import view.GameView;
 
@@ -10,16 +15,33 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.util.Stack;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * The class <b>GameController</b> is the controller of the game.
- * It is a listener of the view, and has a method <b>play</b> which computes the next step of the game, and updates model and view.
+ * It is a listener of the view, and has a method <b>play</b> which plays the next step of the game through the GameEngine,
+ * and updates the view.
+ * The listeners run on the Event Dispatch Thread, but they only queue the moves: the moves are applied to the model
+ * one after the other by a dedicated engine thread, so that a large reveal never freezes the interface.
+ * The model is only changed and read while holding its lock. The view is updated on the Event Dispatch Thread,
+ * and the update requests of a burst of moves are coalesced into a single update.
  */
 public class GameController implements ActionListener, MouseListener {
 
     private GameView gameView;
     private GameModel gameModel;
+    private GameEngine gameEngine;
+    private NoGuessGenerator noGuessGenerator;
+    private final ExecutorService engineThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "game-engine");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean updatePending = new AtomicBoolean();
+    private volatile long updateQueuedAt;
 
     /**
      * Constructor used for initializing the controller. It creates the game's view and the game's model instances.
@@ -29,12 +51,47 @@ public class GameController implements ActionListener, MouseListener {
      * @param numberOfMines the number of mines hidden in the board
      */
     public GameController(int width, int height, int numberOfMines) {
-        gameModel = new GameModel(width, height, numberOfMines);
-        gameView = new GameView(gameModel, this);
+        this(width, height, numberOfMines, false);
     }
 
     /**
-     * Callback used when the user clicks a button (reset or quit).
+     * Constructor used for initializing the controller. It creates the game's view and the game's model instances.
+     *
+     * @param width         the width of the board on which the game will be played
+     * @param height        the height of the board on which the game will be played
+     * @param numberOfMines the number of mines hidden in the board
+     * @param paintedBoard  true to paint the board in a single component, false to use one button per square
+     */
+    public GameController(int width, int height, int numberOfMines, boolean paintedBoard) {
+        this(width, height, numberOfMines, paintedBoard, false);
+    }
+
+    /**
+     * Constructor used for initializing the controller. It creates the game's view and the game's model instances.
+     * In no-guess mode, every game is a board that can be solved without guessing, whose start square is revealed for the player.
+     *
+     * @param width         the width of the board on which the game will be played
+     * @param height        the height of the board on which the game will be played
+     * @param numberOfMines the number of mines hidden in the board
+     * @param paintedBoard  true to paint the board in a single component, false to use one button per square
+     * @param noGuess       true to only play boards that can be solved without guessing
+     */
+    public GameController(int width, int height, int numberOfMines, boolean paintedBoard, boolean noGuess) {
+        gameModel = new GameModel(width, height, numberOfMines, new Random(), false);
+        // The mines are placed by the first click, which always opens a zone
+        gameModel.setDeferredPlacement(true);
+        gameModel.setSafeNeighbourhood(true);
+        gameModel.reset();
+        gameEngine = new GameEngine(gameModel);
+        gameView = new GameView(gameModel, this, paintedBoard);
+        if (noGuess) {
+            noGuessGenerator = new NoGuessGenerator(Runtime.getRuntime().availableProcessors(), 4);
+            engineThread.execute(this::reset);
+        }
+    }
+
+    /**
+     * Callback used when the user clicks a button (hint, reset or quit).
      *
      * @param e the ActionEvent
      */
@@ -44,11 +101,13 @@ public class GameController implements ActionListener, MouseListener {
         if (source.getClass().equals(DotButton.class)) {
             int x = ((DotButton) source).getColumn();
             int y = ((DotButton) source).getRow();
-            play(x, y);
+            engineThread.execute(() -> play(x, y));
         } else if (source.getClass().equals(JButton.class)) {
             JButton button = (JButton) source;
-            if (button.getText().equals("Reset")) {
-                reset();
+            if (button.getText().equals("Hint")) {
+                engineThread.execute(this::hint);
+            } else if (button.getText().equals("Reset")) {
+                engineThread.execute(this::reset);
             } else if (button.getText().equals("Quit")) {
                 System.exit(0);
             }
@@ -56,139 +115,200 @@ public class GameController implements ActionListener, MouseListener {
     }
 
     /**
-     * Resets the game.
+     * Resets the game. Runs on the engine thread.
      */
     private void reset() {
-        gameModel.reset();
-        gameView.update();
+        if (noGuessGenerator != null) {
+            resetNoGuess();
+            return;
+        }
+        long start = Metrics.isEnabled() ? System.nanoTime() : 0;
+        synchronized (gameModel) {
+            gameEngine.reset();
+        }
+        if (Metrics.isEnabled()) {
+            Metrics.RESET.record(System.nanoTime() - start);
+        }
+        requestUpdate();
+    }
+
+    /**
+     * Resets the game on a board that can be solved without guessing, and reveals its start square.
+     * The board is searched for outside of the lock of the model, so the current board stays visible meanwhile.
+     * If no such board can be found, a random board is played instead. Runs on the engine thread.
+     */
+    private void resetNoGuess() {
+        int width = gameModel.getWidth();
+        int height = gameModel.getHeight();
+        long seed;
+        try {
+            seed = noGuessGenerator.next(width, height, gameModel.getNumberOfMines());
+        } catch (IllegalStateException e) {
+            System.out.println(e.getMessage() + ", using a random board...");
+            noGuessGenerator.shutdown();
+            noGuessGenerator = null;
+            reset();
+            return;
+        }
+        synchronized (gameModel) {
+            gameEngine.reset(seed, NoGuessGenerator.getStartX(width), NoGuessGenerator.getStartY(height));
+            gameEngine.reveal(NoGuessGenerator.getStartX(width), NoGuessGenerator.getStartY(height));
+        }
+        requestUpdate();
+    }
+
+    /**
+     * Asks for the view to be updated on the Event Dispatch Thread.
+     * If an update is already waiting to run, it will also take the new changes into account, so nothing more is queued.
+     */
+    private void requestUpdate() {
+        if (updatePending.compareAndSet(false, true)) {
+            if (Metrics.isEnabled()) {
+                updateQueuedAt = System.nanoTime();
+            }
+            SwingUtilities.invokeLater(() -> {
+                updatePending.set(false);
+                long start = Metrics.isEnabled() ? System.nanoTime() : 0;
+                if (Metrics.isEnabled()) {
+                    Metrics.EDT_DELAY.record(start - updateQueuedAt);
+                }
+                synchronized (gameModel) {
+                    gameView.update();
+                }
+                if (Metrics.isEnabled()) {
+                    Metrics.UPDATE.record(System.nanoTime() - start);
+                }
+            });
+        }
     }
 
     /**
      * This method is called when the user clicks on a square.
-     * If that square is not already clicked, then it applies the logic of the game to uncover that square,
+     * If that square is not already clicked, then the engine applies the logic of the game to uncover that square,
      * and possibly end the game if that square was mined, or possibly uncover some other squares.
+     * If the square is already uncovered, the engine chords on it instead.
      * It then checks if the game is finished, and if so, congratulates the player,
      * showing the number of moves, and gives to options: start a new game, or exit.
+     * Runs on the engine thread; the dialog is shown on the Event Dispatch Thread.
      *
      * @param width  the selected column
      * @param height the selected line
      */
     private void play(int width, int height) {
-        if (gameModel.isCovered(width, height) && !gameModel.isFlag(width, height)) {
-            gameModel.step();
-            gameModel.click(width, height);
-            gameModel.uncover(width, height);
-            if (gameModel.isBlank(width, height)) {
-                clearZone(gameModel.get(width, height));
-            }
-            gameView.update();
-
-            if (gameModel.isMined(width, height) || gameModel.isFinished()) {
-                gameModel.uncoverAll();
-                gameView.update();
-                String[] options = {"Play Again", "Quit"};
-                int option;
-                if (gameModel.isMined(width, height)) {
-                    option = JOptionPane.showOptionDialog(null,
-                            "Oh, you lost in " + gameModel.getNumberOfSteps() + " steps!\nWould you like to play again?",
-                            "Boom!", JOptionPane.YES_NO_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, options[0]);
-                } else {
-                    option = JOptionPane.showOptionDialog(null,
-                            "Congratulations, you won in " + gameModel.getNumberOfSteps() + " steps!\nWould you like to play again?",
-                            "Win!", JOptionPane.YES_NO_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, options[0]);
-                }
-                if (option == JOptionPane.YES_OPTION) {
-                    // Play again
-                    reset();
-                } else {
-                    // Exit
-                    System.exit(0);
-                }
-            }
+        MoveResult.Outcome outcome;
+        int numberOfSteps;
+        long start = Metrics.isEnabled() ? System.nanoTime() : 0;
+        synchronized (gameModel) {
+            MoveResult result = gameModel.isCovered(width, height) ? gameEngine.reveal(width, height) : gameEngine.chord(width, height);
+            outcome = result.getOutcome();
+            numberOfSteps = gameModel.getNumberOfSteps();
+        }
+        if (Metrics.isEnabled()) {
+            Metrics.PLAY.record(System.nanoTime() - start);
+        }
+        if (outcome == MoveResult.Outcome.IGNORED) {
+            return;
+        }
+        requestUpdate();
+        if (outcome != MoveResult.Outcome.SAFE) {
+            SwingUtilities.invokeLater(() -> showEndOfGame(outcome == MoveResult.Outcome.MINE, numberOfSteps));
         }
     }
 
     /**
-     * This method computes which new dots should be uncovered
-     * when a new square with no mine in its neighborhood has been selected.
+     * Tells the player that the game is lost or won, and asks whether to start a new game or exit.
+     * Runs on the Event Dispatch Thread.
      *
-     * @param initialDot the DotInfo object corresponding to the selected DotButton that had zero neighbouring mines
+     * @param lost          true if the game was lost, false if it was won
+     * @param numberOfSteps the number of steps played
      */
-    private void clearZone(DotInfo initialDot) {
-        Stack<DotInfo> dotStack = new Stack<>();
-        dotStack.push(initialDot);
-        while (!dotStack.isEmpty()) {
-            DotInfo dot = dotStack.pop();
-            int x = dot.getX();
-            int y = dot.getY();
-            if (x > 0 && gameModel.isCovered(x - 1, y) && !gameModel.isMined(x - 1, y)) {
-                gameModel.uncover(x - 1, y);
-                if (gameModel.isBlank(x - 1, y)) {
-                    dotStack.push(gameModel.get(x - 1, y));
-                }
-            }
-            if (x > 0 && y > 0 && gameModel.isCovered(x - 1, y - 1) && !gameModel.isMined(x - 1, y - 1)) {
-                gameModel.uncover(x - 1, y - 1);
-                if (gameModel.isBlank(x - 1, y - 1)) {
-                    dotStack.push(gameModel.get(x - 1, y - 1));
-                }
-            }
-            if (x > 0 && y < gameModel.getHeight() - 1 && gameModel.isCovered(x - 1, y + 1) && !gameModel.isMined(x - 1, y + 1)) {
-                gameModel.uncover(x - 1, y + 1);
-                if (gameModel.isBlank(x - 1, y + 1)) {
-                    dotStack.push(gameModel.get(x - 1, y + 1));
-                }
-            }
-            if (y > 0 && gameModel.isCovered(x, y - 1) && !gameModel.isMined(x, y - 1)) {
-                gameModel.uncover(x, y - 1);
-                if (gameModel.isBlank(x, y - 1)) {
-                    dotStack.push(gameModel.get(x, y - 1));
-                }
-            }
-            if (y < gameModel.getHeight() - 1 && gameModel.isCovered(x, y + 1) && !gameModel.isMined(x, y + 1)) {
-                gameModel.uncover(x, y + 1);
-                if (gameModel.isBlank(x, y + 1)) {
-                    dotStack.push(gameModel.get(x, y + 1));
-                }
-            }
-            if (x < gameModel.getWidth() - 1 && gameModel.isCovered(x + 1, y) && !gameModel.isMined(x + 1, y)) {
-                gameModel.uncover(x + 1, y);
-                if (gameModel.isBlank(x + 1, y)) {
-                    dotStack.push(gameModel.get(x + 1, y));
-                }
+    private void showEndOfGame(boolean lost, int numberOfSteps) {
+        String[] options = {"Play Again", "Quit"};
+        int option;
+        if (lost) {
+            option = JOptionPane.showOptionDialog(null,
+                    "Oh, you lost in " + numberOfSteps + " steps!\nWould you like to play again?",
+                    "Boom!", JOptionPane.YES_NO_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, options[0]);
+        } else {
+            option = JOptionPane.showOptionDialog(null,
+                    "Congratulations, you won in " + numberOfSteps + " steps!\nWould you like to play again?",
+                    "Win!", JOptionPane.YES_NO_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, options[0]);
+        }
+        if (option == JOptionPane.YES_OPTION) {
+            // Play again
+            engineThread.execute(this::reset);
+        } else {
+            // Exit
+            System.exit(0);
+        }
+    }
+
+    /**
+     * Asks the solver for a safe square, or the square least likely to be mined, and shows it to the player.
+     * Runs on the engine thread; the hint is shown on the Event Dispatch Thread.
+     */
+    private void hint() {
+        int index;
+        double probability;
+        synchronized (gameModel) {
+            if (gameEngine.isOver()) {
+                return;
             }
-            if (x < gameModel.getWidth() - 1 && y > 0 && gameModel.isCovered(x + 1, y - 1) && !gameModel.isMined(x + 1, y - 1)) {
-                gameModel.uncover(x + 1, y - 1);
-                if (gameModel.isBlank(x + 1, y - 1)) {
-                    dotStack.push(gameModel.get(x + 1, y - 1));
-                }
+            Solver solver = gameEngine.getSolver();
+            solver.solve();
+            int[] safeMoves = solver.nextSafeMoves();
+            index = safeMoves.length > 0 ? safeMoves[0] : solver.bestGuess();
+            if (index < 0) {
+                return;
             }
-            if (x < gameModel.getWidth() - 1 && y < gameModel.getHeight() - 1 && gameModel.isCovered(x + 1, y + 1) && !gameModel.isMined(x + 1, y + 1)) {
-                gameModel.uncover(x + 1, y + 1);
-                if (gameModel.isBlank(x + 1, y + 1)) {
-                    dotStack.push(gameModel.get(x + 1, y + 1));
-                }
+            probability = solver.getMineProbability(index % gameModel.getWidth(), index / gameModel.getWidth());
+        }
+        int x = index % gameModel.getWidth();
+        int y = index / gameModel.getWidth();
+        SwingUtilities.invokeLater(() -> gameView.showHint(x, y, probability));
+    }
+
+    /**
+     * Puts or removes the flag on a covered square. Runs on the engine thread.
+     *
+     * @param x the selected column
+     * @param y the selected line
+     */
+    private void flag(int x, int y) {
+        synchronized (gameModel) {
+            if (!gameEngine.toggleFlag(x, y)) {
+                return;
             }
         }
+        requestUpdate();
     }
 
     /**
      * Callback used when the user clicks a button (reset or quit).
-     * The right click is processed here.
+     * The right click is processed here, as well as both clicks on the painted board.
      *
      * @param e the MouseEvent
      */
     @Override
     public void mouseClicked(MouseEvent e) {
-        if (e.getButton() == MouseEvent.BUTTON3) {
+        Object source = e.getSource();
+        if (source.getClass().equals(BoardPanel.class)) {
+            BoardPanel boardPanel = (BoardPanel) source;
+            int x = boardPanel.getColumnAt(e.getX());
+            int y = boardPanel.getRowAt(e.getY());
+            if (x < 0 || y < 0) {
+                return;
+            }
+            if (e.getButton() == MouseEvent.BUTTON1) {
+                engineThread.execute(() -> play(x, y));
+            } else if (e.getButton() == MouseEvent.BUTTON3) {
+                engineThread.execute(() -> flag(x, y));
+            }
+        } else if (e.getButton() == MouseEvent.BUTTON3) {
             // Right click for flag
-            Object source = e.getSource();
             int x = ((DotButton) source).getColumn();
             int y = ((DotButton) source).getRow();
-            if (gameModel.isCovered(x, y) || gameModel.isFlag(x, y)) {
-                gameModel.setFlag(x, y, !gameModel.isFlag(x, y));
-                gameView.update();
-            }
+            engineThread.execute(() -> flag(x, y));
         }
     }
 
@@ -0,0 +1,265 @@
+package controller;
+
+import model.ChunkedBoard;
+import view.InfiniteBoardPanel;
+import view.InfiniteView;
+
+import javax.swing.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionListener;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.MouseWheelListener;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * The class <b>InfiniteController</b> is the controller of a game played on an unbounded ChunkedBoard.
+ * It is a listener of the view: a click reveals a dot, or chords on an uncovered one, a right click puts or removes a flag,
+ * and dragging the board with any button moves the window over it. The wheel scrolls the board, and zooms with Ctrl.
+ * <p>
+ * Unlike the GameController, the moves are applied on the Event Dispatch Thread, which is the only thread that touches
+ * the board: a move uncovers at most CASCADE_STEP dots, and the rest of a large zone is uncovered by a timer,
+ * a step at a time, so the interface never freezes even when the zone never ends.
+ */
+public class InfiniteController implements ActionListener, MouseListener, MouseMotionListener, MouseWheelListener {
+
+    private static final int CASCADE_STEP = 1 << 14;
+    private static final int CASCADE_DELAY = 15;
+    private static final int DRAG_THRESHOLD = 4;
+
+    private final double density;
+    private final long memoryBound;
+    private final Random seedGenerator = new Random();
+    private final Timer cascadeTimer = new Timer(CASCADE_DELAY, e -> continueCascade());
+    private ChunkedBoard board;
+    private InfiniteView view;
+    private int lastX;
+    private int lastY;
+    private boolean dragging;
+
+    /**
+     * Constructor used for initializing the controller. It creates the board and its view, and starts the game by
+     * revealing the dot (0,0). The chunks evicted from the memory are written to a temporary file, deleted on exit.
+     * It must be created on the Event Dispatch Thread.
+     *
+     * @param density     the proportion of mined dots, between 0 and 1
+     * @param memoryBound the largest number of bytes taken by the chunks in memory
+     * @throws IOException if the spill file cannot be created
+     */
+    public InfiniteController(double density, long memoryBound) throws IOException {
+        this.density = density;
+        this.memoryBound = memoryBound;
+        board = newBoard();
+        view = new InfiniteView(board, this);
+        play(0, 0);
+    }
+
+    /**
+     * Creates a board with a new seed, spilling to a new temporary file.
+     *
+     * @return the new board
+     * @throws IOException if the spill file cannot be created
+     */
+    private ChunkedBoard newBoard() throws IOException {
+        Path spillPath = Files.createTempFile("minesweeper", ".spill");
+        spillPath.toFile().deleteOnExit();
+        ChunkedBoard chunkedBoard = new ChunkedBoard(seedGenerator.nextLong(), density, memoryBound, spillPath);
+        chunkedBoard.setMaxCascade(CASCADE_STEP);
+        return chunkedBoard;
+    }
+
+    /**
+     * Callback used when the user clicks a button (centre, reset or quit).
+     *
+     * @param e the ActionEvent
+     */
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        JButton button = (JButton) e.getSource();
+        if (button.getText().equals("Centre")) {
+            view.getBoardPanel().centreOn(0, 0);
+        } else if (button.getText().equals("Reset")) {
+            reset();
+        } else if (button.getText().equals("Quit")) {
+            System.exit(0);
+        }
+    }
+
+    /**
+     * Resets the game on a new board, and deletes the spill file of the previous one.
+     */
+    private void reset() {
+        cascadeTimer.stop();
+        try {
+            board.close();
+            board = newBoard();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        view.setBoard(board);
+        play(0, 0);
+    }
+
+    /**
+     * This method is called when the user clicks on a square.
+     * If that square is covered, it is revealed, and possibly ends the game if it was mined, or uncovers a zone around it.
+     * If the square is already uncovered, the board chords on it instead. A zone too large for a single move
+     * is then uncovered by the cascade timer.
+     *
+     * @param x the selected column
+     * @param y the selected line
+     */
+    private void play(int x, int y) {
+        int opened = board.isCovered(x, y) ? board.reveal(x, y) : board.chord(x, y);
+        if (opened == 0) {
+            return;
+        }
+        if (board.isLost()) {
+            cascadeTimer.stop();
+            view.update();
+            // Shown once the board has been repainted with the mine clicked
+            SwingUtilities.invokeLater(this::showEndOfGame);
+            return;
+        }
+        if (board.hasPendingCascade()) {
+            cascadeTimer.start();
+        }
+        view.update();
+    }
+
+    /**
+     * Uncovers the next dots of the zones cut by the previous moves. Runs on the timer, on the Event Dispatch Thread.
+     */
+    private void continueCascade() {
+        board.continueCascade();
+        if (!board.hasPendingCascade()) {
+            cascadeTimer.stop();
+        }
+        view.update();
+    }
+
+    /**
+     * Tells the player that the game is lost, and asks whether to start a new game or exit.
+     */
+    private void showEndOfGame() {
+        String[] options = {"Play Again", "Quit"};
+        int option = JOptionPane.showOptionDialog(null,
+                "Oh, you lost after uncovering " + board.getNumberUncovered() + " dots!\nWould you like to play again?",
+                "Boom!", JOptionPane.YES_NO_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, options[0]);
+        if (option == JOptionPane.YES_OPTION) {
+            // Play again
+            reset();
+        } else {
+            // Exit
+            System.exit(0);
+        }
+    }
+
+    /**
+     * Puts or removes the flag on a covered square.
+     *
+     * @param x the selected column
+     * @param y the selected line
+     */
+    private void flag(int x, int y) {
+        if (board.toggleFlag(x, y)) {
+            view.update();
+        }
+    }
+
+    /**
+     * Callback used when a button of the mouse is pressed on the board: it may start a click or a drag.
+     *
+     * @param e the MouseEvent
+     */
+    @Override
+    public void mousePressed(MouseEvent e) {
+        lastX = e.getX();
+        lastY = e.getY();
+        dragging = false;
+    }
+
+    /**
+     * Callback used when the mouse is dragged on the board. Once it has moved far enough, the board follows it.
+     *
+     * @param e the MouseEvent
+     */
+    @Override
+    public void mouseDragged(MouseEvent e) {
+        if (!dragging && Math.abs(e.getX() - lastX) + Math.abs(e.getY() - lastY) < DRAG_THRESHOLD) {
+            return;
+        }
+        dragging = true;
+        view.getBoardPanel().scroll(lastX - e.getX(), lastY - e.getY());
+        lastX = e.getX();
+        lastY = e.getY();
+    }
+
+    /**
+     * Callback used when a button of the mouse is released on the board.
+     * The click is processed here, unless the board was dragged since the button was pressed.
+     *
+     * @param e the MouseEvent
+     */
+    @Override
+    public void mouseReleased(MouseEvent e) {
+        if (dragging) {
+            return;
+        }
+        InfiniteBoardPanel boardPanel = view.getBoardPanel();
+        int x = boardPanel.getColumnAt(e.getX());
+        int y = boardPanel.getRowAt(e.getY());
+        if (x < -ChunkedBoard.LIMIT || x >= ChunkedBoard.LIMIT || y < -ChunkedBoard.LIMIT || y >= ChunkedBoard.LIMIT) {
+            return;
+        }
+        if (e.getButton() == MouseEvent.BUTTON1) {
+            play(x, y);
+        } else if (e.getButton() == MouseEvent.BUTTON3) {
+            flag(x, y);
+        }
+    }
+
+    /**
+     * Callback used when the wheel of the mouse turns on the board: it scrolls the board, sideways with Shift,
+     * or zooms in and out with Ctrl.
+     *
+     * @param e the MouseWheelEvent
+     */
+    @Override
+    public void mouseWheelMoved(MouseWheelEvent e) {
+        InfiniteBoardPanel boardPanel = view.getBoardPanel();
+        if (e.isControlDown()) {
+            boardPanel.setZoomLevel(boardPanel.getZoomLevel() - e.getWheelRotation());
+        } else if (e.isShiftDown()) {
+            boardPanel.scroll(3 * e.getWheelRotation() * boardPanel.getTileSize(), 0);
+        } else {
+            boardPanel.scroll(0, 3 * e.getWheelRotation() * boardPanel.getTileSize());
+        }
+    }
+
+    @Override
+    public void mouseClicked(MouseEvent e) {
+
+    }
+
+    @Override
+    public void mouseEntered(MouseEvent e) {
+
+    }
+
+    @Override
+    public void mouseExited(MouseEvent e) {
+
+    }
+
+    @Override
+    public void mouseMoved(MouseEvent e) {
+
+    }
+}
@@ -0,0 +1,94 @@
+package main;
+
+import arena.Arena;
+import arena.BotStats;
+import arena.RandomBot;
+import arena.SolverBot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * The class <b>BotArena</b> launches a competition between the bundled bots, without any user interface.
+ */
+public class BotArena {
+
+    private static final int DEFAULT_JOURNAL_GAMES = 100;
+
+    /**
+     * Main entrance of the competition. The parameters are the number of games per bot, the seed,
+     * the latency of each move in milliseconds, the number of platform threads used when the JVM has no virtual threads
+     * (0 = all processors), and the configuration of the boards, written widthxheightxmines (e.g. 30x16x99).
+     * Optionally, a directory then records the first games of each bot in journals, which <b>Replay</b> plays back,
+     * followed by the number of games recorded per bot (default 100).
+     *
+     * @param args command line parameters
+     */
+    public static void main(String[] args) {
+        if (args.length < 5) {
+            System.out.println("Usage: BotArena games seed latencyMillis threads widthxheightxmines [journalDirectory [journalGames]]");
+            return;
+        }
+        int games;
+        long seed;
+        long latencyMillis;
+        int threads;
+        int width;
+        int height;
+        int numberOfMines;
+        int journalGames = DEFAULT_JOURNAL_GAMES;
+        try {
+            games = Integer.parseInt(args[0]);
+            seed = Long.parseLong(args[1]);
+            latencyMillis = Long.parseLong(args[2]);
+            threads = Integer.parseInt(args[3]);
+            String[] configuration = args[4].split("x");
+            width = Integer.parseInt(configuration[0]);
+            height = Integer.parseInt(configuration[1]);
+            numberOfMines = Integer.parseInt(configuration[2]);
+            if (args.length > 6) {
+                journalGames = Integer.parseInt(args[6]);
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("Invalid argument: " + e.getMessage());
+            return;
+        }
+        if (games < 1 || latencyMillis < 0 || width < 1 || height < 1 || numberOfMines < 1 || numberOfMines >= width * height || journalGames < 0) {
+            System.out.println("Invalid argument");
+            return;
+        }
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+
+        Arena arena = new Arena(width, height, numberOfMines, latencyMillis);
+        arena.addBot("solver", SolverBot::new);
+        arena.addBot("random", RandomBot::new);
+        if (args.length > 5) {
+            Path journalDirectory = Paths.get(args[5]);
+            try {
+                Files.createDirectories(journalDirectory);
+            } catch (IOException e) {
+                System.out.println("Cannot create the journal directory: " + e.getMessage());
+                return;
+            }
+            arena.setJournal(journalDirectory, journalGames);
+            System.out.println("Recording " + Math.min(games, journalGames) + " games per bot in " + journalDirectory);
+        }
+        System.out.println("Configuration " + args[4] + ", " + games + " games per bot on "
+                + (Arena.hasVirtualThreads() ? "virtual threads" : threads + " platform threads"));
+        try {
+            long start = System.nanoTime();
+            List<BotStats> results = arena.run(games, seed, threads);
+            System.out.println(String.format("%.2f s", (System.nanoTime() - start) / 1e9));
+            for (BotStats stats : results) {
+                System.out.println(stats);
+            }
+        } catch (InterruptedException e) {
+            System.out.println("Interrupted");
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package main;
+
+import server.GameServer;
+import server.LoadClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * The class <b>LoadTest</b> loads a GameServer with many simultaneous games and prints the throughput and the latency.
+ */
+public class LoadTest {
+
+    /**
+     * Main entrance of the load test. The parameters are the host and the port of the server, the number of connections,
+     * the duration in seconds and the configuration of the boards, written widthxheightxmines (e.g. 30x16x99).
+     * A port of 0 starts a server in the same process, on the loopback interface, with a worker per processor.
+     *
+     * @param args command line parameters
+     */
+    public static void main(String[] args) {
+        if (args.length < 5) {
+            System.out.println("Usage: LoadTest host port connections seconds widthxheightxmines");
+            return;
+        }
+        int port;
+        int connections;
+        int seconds;
+        int width;
+        int height;
+        int numberOfMines;
+        try {
+            port = Integer.parseInt(args[1]);
+            connections = Integer.parseInt(args[2]);
+            seconds = Integer.parseInt(args[3]);
+            String[] configuration = args[4].split("x");
+            width = Integer.parseInt(configuration[0]);
+            height = Integer.parseInt(configuration[1]);
+            numberOfMines = Integer.parseInt(configuration[2]);
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("Invalid argument: " + e.getMessage());
+            return;
+        }
+        if (connections < 1 || seconds < 1 || width < 1 || height < 1 || numberOfMines < 1 || numberOfMines >= width * height) {
+            System.out.println("Invalid argument");
+            return;
+        }
+
+        GameServer server = null;
+        try {
+            InetSocketAddress address;
+            if (port == 0) {
+                server = new GameServer(new InetSocketAddress("127.0.0.1", 0), Runtime.getRuntime().availableProcessors());
+                server.start();
+                address = new InetSocketAddress("127.0.0.1", server.getPort());
+            } else {
+                address = new InetSocketAddress(args[0], port);
+            }
+            LoadClient client = new LoadClient(address, connections, width, height, numberOfMines, System.nanoTime());
+            client.run(seconds * 1000L);
+            System.out.println(String.format("%d connections, %d moves in %d s: %.0f moves/s, %d games, %.1f%% won, %d errors",
+                    connections, client.getNumberOfMoves(), seconds, (double) client.getNumberOfMoves() / seconds,
+                    client.getNumberOfGames(), 100.0 * client.getNumberOfWins() / Math.max(1, client.getNumberOfGames()),
+                    client.getNumberOfErrors()));
+            System.out.println(String.format("%.1f bytes received per move",
+                    (double) client.getBytesReceived() / Math.max(1, client.getNumberOfMoves())));
+            System.out.println(client.getLatency());
+            if (server != null) {
+                System.out.println(server.getPool().getAllocated() + " response buffers allocated");
+            }
+        } catch (IOException e) {
+            System.out.println("Load test failed: " + e.getMessage());
+        } finally {
+            if (server != null) {
+                try {
+                    server.close();
+                } catch (IOException e) {
+                    // Nothing more to do at exit
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package main;
 
 import controller.GameController;
+import controller.InfiniteController;
+import metrics.Metrics;
+import view.IconAtlas;
+
+import javax.swing.*;
+import java.io.IOException;
 
 /**
  * The class <b>Minesweeper</b> launches the game.
@@ -10,21 +16,46 @@ public class Minesweeper {
     private static final int DEFAULT_WIDTH = 20;
     private static final int DEFAULT_HEIGHT = 12;
     private static final int DEFAULT_MINES = 36;
+    private static final int METRICS_DUMP_PERIOD = 10;
+    private static final long INFINITE_MEMORY_BOUND = 64L << 20;
 
     /**
      * Main entrance of the application. Creates the instance of GameController and starts the game.
      * If three parameters width, height, number of mines are passed, they are used. Otherwise, a default value is used.
      * Defaults values are also used if the parameters are too small (minimum 10 for width, 5 for heigth and 1 for number of mines).
      * Additionally, the maximum number of mines is capped at width*height-1.
+     * Optional parameters follow: "painted" draws the board in a single component instead of one button per square,
+     * "noguess" only deals boards that can be solved without guessing,
+     * "infinite" plays on an unbounded board instead, as dense in mines as the board given by the first three parameters,
+     * and "metrics" measures the game loop, printing the measures every ten seconds and exposing them through JMX.
      *
      * @param args command line parameters
      */
     public static void main(String[] args) {
+        // Decode the icons while the arguments are parsed and the model is built
+        IconAtlas.preload();
+
         int width = DEFAULT_WIDTH;
         int heigth = DEFAULT_HEIGHT;
         int numberOfMines = DEFAULT_MINES;
+        boolean paintedBoard = false;
+        boolean noGuess = false;
+        boolean infinite = false;
 
-        if (args.length == 3) {
+        for (int k = 3; k < args.length; k++) {
+            if (args[k].equals("painted")) {
+                paintedBoard = true;
+            } else if (args[k].equals("noguess")) {
+                noGuess = true;
+            } else if (args[k].equals("infinite")) {
+                infinite = true;
+            } else if (args[k].equals("metrics")) {
+                Metrics.enable(METRICS_DUMP_PERIOD);
+            } else if (!args[k].equals("buttons")) {
+                System.out.println("Invalid argument, using default...");
+            }
+        }
+        if (args.length >= 3) {
             try {
                 width = Integer.parseInt(args[0]);
                 if (width < 10) {
@@ -56,6 +87,20 @@ public class Minesweeper {
             numberOfMines = (width * heigth - 1);
         }
 
-        new GameController(width, heigth, numberOfMines);
+        if (infinite) {
+            double density = (double) numberOfMines / (width * heigth);
+            // The timer of the cascades runs on the Event Dispatch Thread, so the board is only ever touched there
+            SwingUtilities.invokeLater(() -> {
+                try {
+                    new InfiniteController(density, INFINITE_MEMORY_BOUND);
+                } catch (IOException e) {
+                    System.out.println("Cannot create the spill file: " + e.getMessage());
+                    System.exit(1);
+                }
+            });
+        } else {
+            new GameController(width, heigth, numberOfMines, paintedBoard, noGuess);
+        }
+        System.out.println("Icons loaded in " + IconAtlas.getInstance().getBuildTimeMillis() + " ms");
     }
 }
@@ -0,0 +1,48 @@
+package main;
+
+import model.BoardText;
+import model.JournalReplay;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * The class <b>Replay</b> plays back a game recorded in a journal, such as the games recorded by <b>BotArena</b>,
+ * without any user interface.
+ */
+public class Replay {
+
+    /**
+     * Main entrance of the replay. The parameters are the journal, then optionally the number of moves to seek to
+     * (by default, all of them). The board is printed as the player saw it after that move.
+     *
+     * @param args command line parameters
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: Replay journal [move]");
+            return;
+        }
+        try {
+            JournalReplay replay = new JournalReplay(Paths.get(args[0]));
+            int move = replay.getNumberOfMoves();
+            if (args.length > 1) {
+                move = Integer.parseInt(args[1]);
+            }
+            if (move < 0 || move > replay.getNumberOfMoves()) {
+                System.out.println("Invalid move: the journal has " + replay.getNumberOfMoves() + " moves");
+                return;
+            }
+            long start = System.nanoTime();
+            replay.seek(move);
+            double millis = (System.nanoTime() - start) / 1e6;
+            System.out.println("Seed " + replay.getSeed() + ", move " + move + " of " + replay.getNumberOfMoves()
+                    + String.format(" (seek %.2f ms)", millis) + (replay.getEngine().isOver() ? ", game over" : ""));
+            BoardText.write(replay.getEngine().getModel(), BoardText.View.COVERED, System.out);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid argument: " + e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Cannot replay the journal: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package main;
+
+import server.GameServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * The class <b>Server</b> launches a GameServer hosting games for remote clients, without any user interface.
+ */
+public class Server {
+
+    /**
+     * Main entrance of the server. The parameters are the port and the number of worker threads.
+     * A worker count of 0 uses all the available processors. The server runs until the process is stopped.
+     *
+     * @param args command line parameters
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: Server port workers");
+            return;
+        }
+        int port;
+        int workers;
+        try {
+            port = Integer.parseInt(args[0]);
+            workers = Integer.parseInt(args[1]);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid argument: " + e.getMessage());
+            return;
+        }
+        if (workers <= 0) {
+            workers = Runtime.getRuntime().availableProcessors();
+        }
+        try {
+            GameServer server = new GameServer(new InetSocketAddress(port), workers);
+            server.start();
+            System.out.println("Game server listening on port " + server.getPort() + " with " + workers + " workers");
+        } catch (IOException e) {
+            System.out.println("Cannot start the server: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package main;
+
+import simulation.SimulationResult;
+import simulation.Simulator;
+
+/**
+ * The class <b>Simulation</b> launches a batch simulation of games played by the solver, without any user interface.
+ */
+public class Simulation {
+
+    /**
+     * Main entrance of the simulation. The parameters are the number of games per configuration, the seed,
+     * the number of threads, then one or more configurations written widthxheightxmines (e.g. 30x16x99).
+     * A thread count of 0 uses all the available processors.
+     *
+     * @param args command line parameters
+     */
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.out.println("Usage: Simulation games seed threads widthxheightxmines...");
+            return;
+        }
+        long games;
+        long seed;
+        int threads;
+        try {
+            games = Long.parseLong(args[0]);
+            seed = Long.parseLong(args[1]);
+            threads = Integer.parseInt(args[2]);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid argument: " + e.getMessage());
+            return;
+        }
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+
+        Simulator simulator = new Simulator(threads);
+        for (int k = 3; k < args.length; k++) {
+            String[] configuration = args[k].split("x");
+            int width;
+            int height;
+            int numberOfMines;
+            try {
+                width = Integer.parseInt(configuration[0]);
+                height = Integer.parseInt(configuration[1]);
+                numberOfMines = Integer.parseInt(configuration[2]);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                System.out.println("Invalid configuration, skipping: " + args[k]);
+                continue;
+            }
+            if (width < 1 || height < 1 || numberOfMines < 1 || numberOfMines >= width * height) {
+                System.out.println("Invalid configuration, skipping: " + args[k]);
+                continue;
+            }
+            long start = System.nanoTime();
+            SimulationResult result = simulator.run(width, height, numberOfMines, games, seed);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println("Configuration " + args[k] + " (" + threads + " threads, "
+                    + String.format("%.2f s, %.0f games/s", seconds, games / seconds) + ")");
+            System.out.print(result);
+        }
+        simulator.shutdown();
+    }
+}
@@ -0,0 +1,179 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The class <b>Histogram</b> records non-negative values (durations, sizes) in log-linear buckets, in the manner of HdrHistogram:
+ * the values below 32 have a bucket each, and every power of two above is split in 16 buckets,
+ * so a percentile is known within 1/16 (about 6%) of its value, from nanoseconds to centuries, in 960 buckets.
+ * <p>
+ * Recording a value is a few atomic updates on preallocated arrays: it never allocates nor locks,
+ * and can be called from any thread. Reading the percentiles scans the buckets.
+ */
+public class Histogram implements HistogramMXBean {
+
+    private static final int SUB_BUCKETS = 16;
+    private static final int BUCKETS = 960;
+
+    private final String name;
+    private final String unit;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Constructor used for initializing an empty histogram.
+     *
+     * @param name the name of the histogram
+     * @param unit the unit of the recorded values
+     */
+    public Histogram(String name, String unit) {
+        this.name = name;
+        this.unit = unit;
+    }
+
+    /**
+     * Getter method for the name of the histogram.
+     *
+     * @return the name of the histogram
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     *
+     * @param value the value to record
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(bucket(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    @Override
+    public long getCount() {
+        return count.get();
+    }
+
+    @Override
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    @Override
+    public long getMax() {
+        return max.get();
+    }
+
+    @Override
+    public long getP50() {
+        return getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getP90() {
+        return getValueAtPercentile(90);
+    }
+
+    @Override
+    public long getP99() {
+        return getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getP999() {
+        return getValueAtPercentile(99.9);
+    }
+
+    /**
+     * Returns the value below which the given percentage of the recorded values fall,
+     * rounded down to the lowest value of its bucket.
+     *
+     * @param percentile the percentage, between 0 and 100
+     * @return the value at the percentile, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        for (int k = 0; k < BUCKETS; k++) {
+            total += counts.get(k);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int k = 0; k < BUCKETS; k++) {
+            seen += counts.get(k);
+            if (seen >= rank) {
+                return Math.min(lowestValue(k), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    @Override
+    public void reset() {
+        for (int k = 0; k < BUCKETS; k++) {
+            counts.set(k, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /**
+     * Returns the bucket of a value: the value itself below 32, otherwise
+     * its four bits following the highest one, offset by the position of the highest one.
+     *
+     * @param value a non-negative value
+     * @return the bucket of the value
+     */
+    static int bucket(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 59 - Long.numberOfLeadingZeros(value);
+        return SUB_BUCKETS * shift + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the lowest value of a bucket.
+     *
+     * @param bucket the bucket
+     * @return the lowest value recorded in that bucket
+     */
+    static long lowestValue(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+    }
+
+    /**
+     * Builds a one-line summary of the histogram.
+     *
+     * @return the summary
+     */
+    public String toString() {
+        return String.format("%-14s count=%d mean=%.1f p50=%d p90=%d p99=%d p99.9=%d max=%d (%s)",
+                name, getCount(), getMean(), getP50(), getP90(), getP99(), getP999(), getMax(), unit);
+    }
+}
@@ -0,0 +1,68 @@
+package metrics;
+
+/**
+ * Management interface of a Histogram, as exposed through JMX.
+ */
+public interface HistogramMXBean {
+
+    /**
+     * Getter method for the unit of the recorded values.
+     *
+     * @return the unit, e.g. "ns" or "dots"
+     */
+    String getUnit();
+
+    /**
+     * Getter method for the number of recorded values.
+     *
+     * @return the number of values
+     */
+    long getCount();
+
+    /**
+     * Getter method for the mean of the recorded values.
+     *
+     * @return the mean, or 0 if nothing was recorded
+     */
+    double getMean();
+
+    /**
+     * Getter method for the largest recorded value.
+     *
+     * @return the maximum, or 0 if nothing was recorded
+     */
+    long getMax();
+
+    /**
+     * Getter method for the median of the recorded values.
+     *
+     * @return the 50th percentile
+     */
+    long getP50();
+
+    /**
+     * Getter method for the 90th percentile of the recorded values.
+     *
+     * @return the 90th percentile
+     */
+    long getP90();
+
+    /**
+     * Getter method for the 99th percentile of the recorded values.
+     *
+     * @return the 99th percentile
+     */
+    long getP99();
+
+    /**
+     * Getter method for the 99.9th percentile of the recorded values.
+     *
+     * @return the 99.9th percentile
+     */
+    long getP999();
+
+    /**
+     * Forgets all the recorded values.
+     */
+    void reset();
+}
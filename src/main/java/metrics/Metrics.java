@@ -0,0 +1,103 @@
+package metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The class <b>Metrics</b> holds the histograms measuring the game loop.
+ * Collection is off unless <b>enable</b> is called at startup; the instrumented code checks <b>isEnabled</b>
+ * before reading the clock, so the measurements cost nothing when they are off.
+ * Once enabled, the histograms are registered as JMX MBeans (minesweeper:type=Metrics,name=...),
+ * and can be printed periodically on the standard output.
+ */
+public final class Metrics {
+
+    /**
+     * Duration of a reset of the game, lock included.
+     */
+    public static final Histogram RESET = new Histogram("reset", "ns");
+    /**
+     * Duration of a move played by the controller, lock included.
+     */
+    public static final Histogram PLAY = new Histogram("play", "ns");
+    /**
+     * Number of dots uncovered by the cascade of a blank dot.
+     */
+    public static final Histogram CASCADE_SIZE = new Histogram("cascade-size", "dots");
+    /**
+     * Duration of the cascade of a blank dot.
+     */
+    public static final Histogram CASCADE_TIME = new Histogram("cascade-time", "ns");
+    /**
+     * Duration of an update of the view, lock included.
+     */
+    public static final Histogram UPDATE = new Histogram("update", "ns");
+    /**
+     * Time an update of the view waited in the queue of the Event Dispatch Thread.
+     */
+    public static final Histogram EDT_DELAY = new Histogram("edt-delay", "ns");
+
+    private static final Histogram[] HISTOGRAMS = {RESET, PLAY, CASCADE_SIZE, CASCADE_TIME, UPDATE, EDT_DELAY};
+
+    private static boolean enabled;
+    private static ScheduledExecutorService dumpThread;
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns true if the metrics are collected.
+     *
+     * @return true if the metrics are enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables the collection of the metrics and registers the histograms as MBeans.
+     * It must be called at startup, before the game starts.
+     *
+     * @param dumpPeriodSeconds the period of the text dump on the standard output, or 0 for no dump
+     */
+    public static synchronized void enable(long dumpPeriodSeconds) {
+        if (enabled) {
+            return;
+        }
+        enabled = true;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (Histogram histogram : HISTOGRAMS) {
+            try {
+                server.registerMBean(histogram, new ObjectName("minesweeper:type=Metrics,name=" + histogram.getName()));
+            } catch (JMException e) {
+                System.out.println("Cannot register the metrics " + histogram.getName() + ": " + e.getMessage());
+            }
+        }
+        if (dumpPeriodSeconds > 0) {
+            dumpThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-dump");
+                thread.setDaemon(true);
+                return thread;
+            });
+            dumpThread.scheduleAtFixedRate(() -> System.out.print(dump()), dumpPeriodSeconds, dumpPeriodSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Builds a text dump of all the histograms, one per line.
+     *
+     * @return the dump
+     */
+    public static String dump() {
+        StringBuilder stringBuilder = new StringBuilder("Metrics:\n");
+        for (Histogram histogram : HISTOGRAMS) {
+            stringBuilder.append("  ").append(histogram).append('\n');
+        }
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,317 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The class <b>BoardText</b> writes the board as text, in the format of <b>GameModel.toString</b>, and reads it back.
+ * Each dot takes two characters: a space and a space for a covered dot (covered view only), "B " for a mine,
+ * or its number of neighbouring mines followed by a space; each row ends with a new line.
+ * <p>
+ * The text is streamed one row at a time: each row is encoded in a buffer that is reused for the following rows,
+ * then written to the output, so the memory used does not depend on the height of the board.
+ * A window of the board can be written instead of the whole board.
+ * The reader is streamed too, and checks the numbers of the text against the mines it has read.
+ */
+public final class BoardText {
+
+    /**
+     * The parts of the board that can be written.
+     */
+    public enum View {
+        /**
+         * The board as the player sees it, with the covered dots left blank.
+         */
+        COVERED,
+        /**
+         * The board with every dot shown.
+         */
+        UNCOVERED,
+        /**
+         * Both boards, each preceded by its title, as written by <b>GameModel.toString</b>.
+         */
+        BOTH
+    }
+
+    private static final String COVERED_TITLE = "Covered Board: ";
+    private static final String UNCOVERED_TITLE = "Uncovered Board: ";
+
+    /**
+     * Destination of the encoded rows.
+     */
+    private interface RowSink {
+        void write(byte[] row, int length) throws IOException;
+    }
+
+    private BoardText() {
+    }
+
+    /**
+     * Writes a view of the whole board to a channel.
+     *
+     * @param gameModel the model of the game
+     * @param view      the view to write
+     * @param channel   the channel to write to, which is not closed
+     * @throws IOException if the channel cannot be written
+     */
+    public static void write(GameModel gameModel, View view, WritableByteChannel channel) throws IOException {
+        write(gameModel, view, 0, 0, gameModel.getWidth(), gameModel.getHeight(), channel);
+    }
+
+    /**
+     * Writes a view of a window of the board to a channel.
+     *
+     * @param gameModel the model of the game
+     * @param view      the view to write
+     * @param x         the x coordinate of the first column of the window
+     * @param y         the y coordinate of the first row of the window
+     * @param width     the number of columns of the window
+     * @param height    the number of rows of the window
+     * @param channel   the channel to write to, which is not closed
+     * @throws IOException if the channel cannot be written
+     */
+    public static void write(GameModel gameModel, View view, int x, int y, int width, int height,
+                             WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[rowLength(gameModel, x, width)]);
+        write(gameModel, view, x, y, width, height, buffer.array(), (row, length) -> {
+            buffer.clear().limit(length);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        });
+    }
+
+    /**
+     * Writes a view of the whole board to a stream.
+     *
+     * @param gameModel the model of the game
+     * @param view      the view to write
+     * @param out       the stream to write to, which is not closed
+     * @throws IOException if the stream cannot be written
+     */
+    public static void write(GameModel gameModel, View view, OutputStream out) throws IOException {
+        byte[] row = new byte[rowLength(gameModel, 0, gameModel.getWidth())];
+        write(gameModel, view, 0, 0, gameModel.getWidth(), gameModel.getHeight(), row, (bytes, length) -> out.write(bytes, 0, length));
+        out.flush();
+    }
+
+    /**
+     * Writes a view of the whole board to a writer.
+     *
+     * @param gameModel the model of the game
+     * @param view      the view to write
+     * @param writer    the writer to write to, which is not closed
+     * @throws IOException if the writer cannot be written
+     */
+    public static void write(GameModel gameModel, View view, Writer writer) throws IOException {
+        byte[] row = new byte[rowLength(gameModel, 0, gameModel.getWidth())];
+        char[] chars = new char[row.length];
+        write(gameModel, view, 0, 0, gameModel.getWidth(), gameModel.getHeight(), row, (bytes, length) -> {
+            for (int k = 0; k < length; k++) {
+                chars[k] = (char) bytes[k];
+            }
+            writer.write(chars, 0, length);
+        });
+        writer.flush();
+    }
+
+    /**
+     * Returns the text of a view of the whole board. Only meant for small boards.
+     *
+     * @param gameModel the model of the game
+     * @param view      the view to write
+     * @return the text of the view
+     */
+    public static String toString(GameModel gameModel, View view) {
+        StringWriter writer = new StringWriter();
+        try {
+            write(gameModel, view, writer);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write to a StringWriter", e);
+        }
+        return writer.toString();
+    }
+
+    private static int rowLength(GameModel gameModel, int x, int width) {
+        if (x < 0 || width < 0 || x + width > gameModel.getWidth()) {
+            throw new IllegalArgumentException("Invalid columns: " + x + " to " + (x + width - 1));
+        }
+        return Math.max(2 * width + 1, UNCOVERED_TITLE.length() + 1);
+    }
+
+    private static void write(GameModel gameModel, View view, int x, int y, int width, int height,
+                              byte[] row, RowSink sink) throws IOException {
+        if (y < 0 || height < 0 || y + height > gameModel.getHeight()) {
+            throw new IllegalArgumentException("Invalid rows: " + y + " to " + (y + height - 1));
+        }
+        if (view == View.BOTH) {
+            sink.write(row, title(COVERED_TITLE, row));
+            writeRows(gameModel, true, x, y, width, height, row, sink);
+            sink.write(row, title(UNCOVERED_TITLE, row));
+            writeRows(gameModel, false, x, y, width, height, row, sink);
+        } else {
+            writeRows(gameModel, view == View.COVERED, x, y, width, height, row, sink);
+        }
+    }
+
+    private static int title(String title, byte[] row) {
+        for (int k = 0; k < title.length(); k++) {
+            row[k] = (byte) title.charAt(k);
+        }
+        row[title.length()] = '\n';
+        return title.length() + 1;
+    }
+
+    /**
+     * Encodes and writes the rows of a window, one at a time, in the same row buffer.
+     */
+    private static void writeRows(GameModel gameModel, boolean covered, int x, int y, int width, int height,
+                                  byte[] row, RowSink sink) throws IOException {
+        for (int j = y; j < y + height; j++) {
+            int length = 0;
+            for (int i = x; i < x + width; i++) {
+                if (covered && gameModel.isCovered(i, j)) {
+                    row[length] = ' ';
+                } else if (gameModel.isMined(i, j)) {
+                    row[length] = 'B';
+                } else {
+                    row[length] = (byte) ('0' + gameModel.getNeighbouringMines(i, j));
+                }
+                row[length + 1] = ' ';
+                length += 2;
+            }
+            row[length++] = '\n';
+            sink.write(row, length);
+        }
+    }
+
+    /**
+     * Reads a board from a channel, as <b>read(Reader)</b> does.
+     *
+     * @param channel the channel to read from, which is not closed
+     * @return a new model holding the board
+     * @throws IOException if the channel cannot be read, or does not hold a valid board
+     */
+    public static GameModel read(ReadableByteChannel channel) throws IOException {
+        return read(Channels.newReader(channel, StandardCharsets.US_ASCII.newDecoder(), -1));
+    }
+
+    /**
+     * Reads a board written in the BOTH view, or in the UNCOVERED view with or without its title.
+     * With the UNCOVERED view alone, every dot is covered. The flags, the seed and the steps are not part of the text.
+     *
+     * @param reader the reader to read from, which is not closed
+     * @return a new model holding the board
+     * @throws IOException if the reader cannot be read, or does not hold a valid board
+     */
+    public static GameModel read(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        String line = lines.readLine();
+        boolean hasCoveredBoard = COVERED_TITLE.equals(line);
+        if (hasCoveredBoard || UNCOVERED_TITLE.equals(line)) {
+            line = lines.readLine();
+        }
+        if (line == null || line.isEmpty() || line.length() % 2 != 0) {
+            throw new IOException("Invalid board: missing or malformed first row");
+        }
+        int width = line.length() / 2;
+        // One byte per dot: the MINED and COVERED bits, and the number of neighbouring mines written in the text
+        byte[] states = new byte[Math.max(width, 64)];
+        int size = 0;
+        int height = 0;
+        if (hasCoveredBoard) {
+            while (line != null && !line.equals(UNCOVERED_TITLE)) {
+                states = ensureCapacity(states, size + width);
+                parseRow(line, width, height, true, states, size);
+                size += width;
+                height++;
+                line = lines.readLine();
+            }
+            if (line == null) {
+                throw new IOException("Invalid board: missing uncovered board");
+            }
+            line = lines.readLine();
+        }
+        int row = 0;
+        int numberOfMines = 0;
+        while (line != null && !line.isEmpty()) {
+            if (hasCoveredBoard && row >= height) {
+                throw new IOException("Invalid board: the uncovered board has more rows than the covered board");
+            }
+            if (!hasCoveredBoard) {
+                states = ensureCapacity(states, size + width);
+                size += width;
+                height++;
+            }
+            numberOfMines += parseRow(line, width, row, false, states, row * width);
+            row++;
+            line = lines.readLine();
+        }
+        if (row != height) {
+            throw new IOException("Invalid board: the covered and uncovered boards have different heights");
+        }
+
+        GameModel gameModel = new GameModel(width, height, numberOfMines, new Random(), false);
+        gameModel.beginRestore(0, 0, false);
+        for (int index = 0; index < size; index++) {
+            int state = states[index] & (GameModel.MINED | GameModel.COVERED);
+            gameModel.restoreDot(index, hasCoveredBoard ? state : state | GameModel.COVERED);
+        }
+        gameModel.endRestore();
+        for (int index = 0; index < size; index++) {
+            int written = states[index] & GameModel.NEIGHBOURS_MASK;
+            if ((states[index] & GameModel.MINED) == 0 && gameModel.getNeighbouringMines(index % width, index / width) != written) {
+                throw new IOException("Invalid board: wrong number at row " + index / width + ", column " + index % width);
+            }
+        }
+        return gameModel;
+    }
+
+    private static byte[] ensureCapacity(byte[] states, int capacity) {
+        return capacity <= states.length ? states : Arrays.copyOf(states, Math.max(capacity, states.length * 2));
+    }
+
+    /**
+     * Parses a row of text into the states of its dots.
+     *
+     * @return the number of mines in the row
+     */
+    private static int parseRow(String line, int width, int row, boolean covered, byte[] states, int offset) throws IOException {
+        if (line.length() != 2 * width) {
+            throw new IOException("Invalid board: row " + row + " has " + line.length() + " characters instead of " + 2 * width);
+        }
+        int mines = 0;
+        for (int i = 0; i < width; i++) {
+            char c = line.charAt(2 * i);
+            if (line.charAt(2 * i + 1) != ' ') {
+                throw new IOException("Invalid board: missing space at row " + row + ", column " + i);
+            }
+            if (covered) {
+                if (c == ' ') {
+                    states[offset + i] = GameModel.COVERED;
+                } else if (c != 'B' && (c < '0' || c > '8')) {
+                    throw new IOException("Invalid board: unexpected '" + c + "' at row " + row + ", column " + i);
+                }
+            } else if (c == 'B') {
+                states[offset + i] |= GameModel.MINED;
+                mines++;
+            } else if (c >= '0' && c <= '8') {
+                states[offset + i] |= c - '0';
+            } else {
+                throw new IOException("Invalid board: unexpected '" + c + "' at row " + row + ", column " + i);
+            }
+        }
+        return mines;
+    }
+}
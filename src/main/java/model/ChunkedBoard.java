@@ -0,0 +1,614 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The class <b>ChunkedBoard</b> is an unbounded board, split into square chunks of CHUNK_SIZE x CHUNK_SIZE dots.
+ * <p>
+ * The mines of a chunk only depend on the seed of the board and on the position of the chunk, so a chunk is only
+ * created when a move reaches it: the chunks nobody played in cost nothing, and are seen as entirely covered.
+ * The dots of a chunk are stored as in GameModel, one byte per dot with the same bits.
+ * The chunks in memory are kept in an LRU cache bounded by a number of bytes. When the cache is full,
+ * the least recently used chunk is written to a spill file, and read back the next time it is needed.
+ * <p>
+ * The game starts by revealing (0,0), whose neighbourhood is always free of mines.
+ * A cascade crosses the chunks like the zones of a normal board. Below a density of about 10%, the blank zones
+ * of an unbounded board may never end, so a reveal uncovers at most <b>maxCascade</b> dots of the zone:
+ * the rest of the zone is kept pending, and uncovered by <b>continueCascade</b>.
+ * The coordinates of the dots range from -LIMIT to LIMIT - 1 on both axes.
+ */
+public class ChunkedBoard implements Closeable {
+
+    public static final int CHUNK_SHIFT = 6;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    public static final int LIMIT = 1 << 30;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int CHUNK_DOTS = CHUNK_SIZE * CHUNK_SIZE;
+
+    /**
+     * Memory taken by a chunk in the cache: its dots, plus the overhead of the objects and of the cache entry.
+     */
+    private static final int CHUNK_FOOTPRINT = CHUNK_DOTS + 160;
+
+    /**
+     * A chunk of the board in memory.
+     */
+    private static final class Chunk {
+        private final int chunkX;
+        private final int chunkY;
+        private final byte[] dots = new byte[CHUNK_DOTS];
+        private boolean resident = true;
+        private boolean dirty = true;
+
+        private Chunk(int chunkX, int chunkY) {
+            this.chunkX = chunkX;
+            this.chunkY = chunkY;
+        }
+    }
+
+    private final long seed;
+    private final int minesPerChunk;
+    private final int maxResident;
+    private final Path spillPath;
+    private final FileChannel spillFile;
+    private final LinkedHashMap<Long, Chunk> chunks;
+    private final Map<Long, Integer> spillSlots = new HashMap<>();
+    private final ByteBuffer spillBuffer = ByteBuffer.allocate(CHUNK_DOTS);
+    private final Random placementGenerator = new Random();
+    private final long[][] mineRows = new long[9][CHUNK_SIZE];
+    private Chunk lastChunk;
+    private long[] pending = new long[64];
+    private int firstPending;
+    private int numberPending;
+    private int maxCascade = 1 << 20;
+    private long numberUncovered;
+    private long numberOfFlags;
+    private long numberOfSpills;
+    private boolean lost;
+
+    /**
+     * Constructor used for initializing an unbounded board.
+     *
+     * @param seed        the seed of the board, from which the mines of every chunk are drawn
+     * @param density     the proportion of mined dots, between 0 and 1
+     * @param memoryBound the largest number of bytes taken by the chunks in memory
+     * @param spillPath   the file to which the chunks are written when they leave the memory, deleted by <b>close</b>
+     * @throws IOException if the spill file cannot be created
+     */
+    public ChunkedBoard(long seed, double density, long memoryBound, Path spillPath) throws IOException {
+        if (density < 0 || density >= 1) {
+            throw new IllegalArgumentException("Invalid density: " + density);
+        }
+        this.seed = seed;
+        this.spillPath = spillPath;
+        minesPerChunk = (int) Math.round(density * CHUNK_DOTS);
+        maxResident = (int) Math.max(2, Math.min(Integer.MAX_VALUE, memoryBound / CHUNK_FOOTPRINT));
+        chunks = new LinkedHashMap<Long, Chunk>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Chunk> eldest) {
+                if (size() <= maxResident) {
+                    return false;
+                }
+                spill(eldest.getValue());
+                return true;
+            }
+        };
+        spillFile = FileChannel.open(spillPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Getter method for the seed of the board.
+     *
+     * @return the seed of the board
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Setter method for the largest number of dots uncovered by a single reveal or continuation of a cascade.
+     *
+     * @param maxCascade the largest number of dots uncovered at once
+     */
+    public void setMaxCascade(int maxCascade) {
+        this.maxCascade = maxCascade;
+    }
+
+    /**
+     * Returns true if a mine has been revealed.
+     *
+     * @return true if the game is lost
+     */
+    public boolean isLost() {
+        return lost;
+    }
+
+    /**
+     * Getter method for the number of uncovered dots, the score of the game.
+     *
+     * @return the number of uncovered dots
+     */
+    public long getNumberUncovered() {
+        return numberUncovered;
+    }
+
+    /**
+     * Getter method for the number of flags on the board.
+     *
+     * @return the number of flags
+     */
+    public long getNumberOfFlags() {
+        return numberOfFlags;
+    }
+
+    /**
+     * Getter method for the number of chunks in memory.
+     *
+     * @return the number of chunks in the cache
+     */
+    public int getNumberOfResidentChunks() {
+        return chunks.size();
+    }
+
+    /**
+     * Getter method for the number of chunks that have a copy in the spill file.
+     *
+     * @return the number of spilled chunks
+     */
+    public int getNumberOfSpilledChunks() {
+        return spillSlots.size();
+    }
+
+    /**
+     * Getter method for the number of times a chunk was written to the spill file.
+     *
+     * @return the number of writes to the spill file
+     */
+    public long getNumberOfSpills() {
+        return numberOfSpills;
+    }
+
+    /**
+     * Returns true if a cascade has been cut by <b>maxCascade</b> and is waiting for <b>continueCascade</b>.
+     *
+     * @return true if some blank dots have not been expanded yet
+     */
+    public boolean hasPendingCascade() {
+        return numberPending > 0;
+    }
+
+    /**
+     * Returns true if the dot at location (x,y) is covered.
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     * @return true if the dot is covered
+     */
+    public boolean isCovered(int x, int y) {
+        return (getState(x, y) & GameModel.COVERED) != 0;
+    }
+
+    /**
+     * Returns true if the dot at location (x,y) has a flag.
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     * @return true if the dot has a flag
+     */
+    public boolean isFlag(int x, int y) {
+        return (getState(x, y) & GameModel.FLAG) != 0;
+    }
+
+    /**
+     * Returns true if the dot at location (x,y) is mined. The mines are known even in the chunks not created yet.
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     * @return true if the dot is mined
+     */
+    public boolean isMined(int x, int y) {
+        checkBounds(x, y);
+        generateMines(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT, mineRows[4]);
+        return (mineRows[4][y & CHUNK_MASK] >>> (x & CHUNK_MASK) & 1) != 0;
+    }
+
+    /**
+     * Returns true if the dot at location (x,y) is the mine that was clicked and lost the game.
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     * @return true if the dot has been clicked and is mined
+     */
+    public boolean hasBeenClicked(int x, int y) {
+        return (getState(x, y) & GameModel.CLICKED) != 0;
+    }
+
+    /**
+     * Returns the number of mines around the uncovered dot at location (x,y).
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     * @return the number of neighbouring mines, or -1 if the dot is covered
+     */
+    public int getNeighbouringMines(int x, int y) {
+        int state = getState(x, y);
+        return (state & GameModel.COVERED) != 0 ? -1 : state & GameModel.NEIGHBOURS_MASK;
+    }
+
+    /**
+     * Reveals the dot at location (x,y). If it has no mined neighbour, the zone around it is uncovered as well,
+     * across the chunks, up to <b>maxCascade</b> more dots. Covered dots with a flag, uncovered dots and moves played
+     * once the game is lost are ignored.
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     * @return the number of dots uncovered
+     */
+    public int reveal(int x, int y) {
+        checkBounds(x, y);
+        if (lost || !isCovered(x, y) || isFlag(x, y)) {
+            return 0;
+        }
+        Chunk chunk = getChunk(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT, true);
+        int index = (y & CHUNK_MASK) << CHUNK_SHIFT | (x & CHUNK_MASK);
+        int state = chunk.dots[index] & ~GameModel.COVERED;
+        numberUncovered++;
+        if ((state & GameModel.MINED) != 0) {
+            chunk.dots[index] = (byte) (state | GameModel.CLICKED);
+            chunk.dirty = true;
+            lost = true;
+            return 1;
+        }
+        chunk.dots[index] = (byte) state;
+        chunk.dirty = true;
+        if ((state & GameModel.NEIGHBOURS_MASK) == 0) {
+            push(x, y);
+            return 1 + expand();
+        }
+        return 1;
+    }
+
+    /**
+     * Chords on the uncovered dot at location (x,y): if as many of its covered neighbours have a flag as it has
+     * neighbouring mines, its other covered neighbours are revealed. The chord stops at the first mine it reveals.
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     * @return the number of dots uncovered
+     */
+    public int chord(int x, int y) {
+        int mines = getNeighbouringMines(x, y);
+        if (lost || mines <= 0) {
+            return 0;
+        }
+        int flags = 0;
+        for (int j = Math.max(y - 1, -LIMIT); j <= Math.min(y + 1, LIMIT - 1); j++) {
+            for (int i = Math.max(x - 1, -LIMIT); i <= Math.min(x + 1, LIMIT - 1); i++) {
+                if ((getState(i, j) & (GameModel.COVERED | GameModel.FLAG)) == (GameModel.COVERED | GameModel.FLAG)) {
+                    flags++;
+                }
+            }
+        }
+        if (flags != mines) {
+            return 0;
+        }
+        int opened = 0;
+        for (int j = Math.max(y - 1, -LIMIT); j <= Math.min(y + 1, LIMIT - 1); j++) {
+            for (int i = Math.max(x - 1, -LIMIT); i <= Math.min(x + 1, LIMIT - 1); i++) {
+                opened += reveal(i, j);
+            }
+        }
+        return opened;
+    }
+
+    /**
+     * Uncovers up to <b>maxCascade</b> more dots of the cascades cut by the previous moves.
+     *
+     * @return the number of dots uncovered
+     */
+    public int continueCascade() {
+        return expand();
+    }
+
+    /**
+     * Puts or removes the flag on the covered dot at location (x,y).
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     * @return true if the flag was changed, false if the move was ignored
+     */
+    public boolean toggleFlag(int x, int y) {
+        checkBounds(x, y);
+        if (lost || !isCovered(x, y)) {
+            return false;
+        }
+        Chunk chunk = getChunk(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT, true);
+        int index = (y & CHUNK_MASK) << CHUNK_SHIFT | (x & CHUNK_MASK);
+        chunk.dots[index] ^= (byte) GameModel.FLAG;
+        chunk.dirty = true;
+        numberOfFlags += (chunk.dots[index] & GameModel.FLAG) != 0 ? 1 : -1;
+        return true;
+    }
+
+    /**
+     * Builds the text of a window of the board as the player sees it, in the format of <b>BoardText</b>:
+     * two characters per dot, blank for a covered dot, "B " for a mine, or its number of neighbouring mines.
+     * Reading the board does not create any chunk.
+     *
+     * @param x      the x coordinate of the first column of the window
+     * @param y      the y coordinate of the first row of the window
+     * @param width  the number of columns of the window
+     * @param height the number of rows of the window
+     * @return the text of the window
+     */
+    public String toString(int x, int y, int width, int height) {
+        StringBuilder stringBuilder = new StringBuilder(height * (2 * width + 1));
+        for (int j = y; j < y + height; j++) {
+            for (int i = x; i < x + width; i++) {
+                int state = getState(i, j);
+                if ((state & GameModel.COVERED) != 0) {
+                    stringBuilder.append("  ");
+                } else if ((state & GameModel.MINED) != 0) {
+                    stringBuilder.append("B ");
+                } else {
+                    stringBuilder.append(state & GameModel.NEIGHBOURS_MASK).append(' ');
+                }
+            }
+            stringBuilder.append('\n');
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Closes and deletes the spill file. The board cannot be used afterwards.
+     *
+     * @throws IOException if the spill file cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        spillFile.close();
+        Files.deleteIfExists(spillPath);
+    }
+
+    /**
+     * Expands the pending blank dots in the order they were found, so that a cut cascade grows around the dot revealed,
+     * uncovering their covered neighbours until none is left or <b>maxCascade</b> dots have been uncovered.
+     * A blank dot whose neighbours were not all uncovered stays pending. The neighbours of a blank dot are never mined.
+     *
+     * @return the number of dots uncovered
+     */
+    private int expand() {
+        int opened = 0;
+        while (numberPending > 0 && opened < maxCascade) {
+            long packed = pending[firstPending];
+            int x = (int) (packed >> 32);
+            int y = (int) packed;
+            for (int j = Math.max(y - 1, -LIMIT); j <= Math.min(y + 1, LIMIT - 1); j++) {
+                for (int i = Math.max(x - 1, -LIMIT); i <= Math.min(x + 1, LIMIT - 1); i++) {
+                    Chunk chunk = getChunk(i >> CHUNK_SHIFT, j >> CHUNK_SHIFT, true);
+                    int index = (j & CHUNK_MASK) << CHUNK_SHIFT | (i & CHUNK_MASK);
+                    int state = chunk.dots[index];
+                    if ((state & GameModel.COVERED) == 0 || (state & GameModel.FLAG) != 0) {
+                        continue;
+                    }
+                    if (opened == maxCascade) {
+                        numberUncovered += opened;
+                        return opened;
+                    }
+                    chunk.dots[index] = (byte) (state & ~GameModel.COVERED);
+                    chunk.dirty = true;
+                    opened++;
+                    if ((state & GameModel.NEIGHBOURS_MASK) == 0) {
+                        push(i, j);
+                    }
+                }
+            }
+            firstPending = (firstPending + 1) & (pending.length - 1);
+            numberPending--;
+        }
+        numberUncovered += opened;
+        return opened;
+    }
+
+    /**
+     * Adds a blank dot at the end of the circular queue of the pending dots, whose size is a power of two.
+     */
+    private void push(int x, int y) {
+        if (numberPending == pending.length) {
+            long[] queue = new long[2 * pending.length];
+            for (int k = 0; k < numberPending; k++) {
+                queue[k] = pending[(firstPending + k) & (pending.length - 1)];
+            }
+            pending = queue;
+            firstPending = 0;
+        }
+        pending[(firstPending + numberPending++) & (pending.length - 1)] = (long) x << 32 | (y & 0xFFFFFFFFL);
+    }
+
+    private static void checkBounds(int x, int y) {
+        if (x < -LIMIT || x >= LIMIT || y < -LIMIT || y >= LIMIT) {
+            throw new IllegalArgumentException("Dot out of the board: (" + x + "," + y + ")");
+        }
+    }
+
+    /**
+     * Returns the state bits of the dot at location (x,y), without creating its chunk:
+     * the dots of a chunk that was never created are covered.
+     */
+    private int getState(int x, int y) {
+        checkBounds(x, y);
+        Chunk chunk = getChunk(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT, false);
+        return chunk == null ? GameModel.COVERED : chunk.dots[(y & CHUNK_MASK) << CHUNK_SHIFT | (x & CHUNK_MASK)];
+    }
+
+    /**
+     * Returns a chunk, reading it back from the spill file if it was evicted, or generating it if asked for.
+     * Getting a chunk may evict the least recently used one, so a chunk must not be used across two calls.
+     *
+     * @param chunkX the x coordinate of the chunk
+     * @param chunkY the y coordinate of the chunk
+     * @param create true to generate the chunk if it does not exist yet
+     * @return the chunk, or null if it does not exist and create is false
+     */
+    private Chunk getChunk(int chunkX, int chunkY, boolean create) {
+        if (lastChunk != null && lastChunk.resident && lastChunk.chunkX == chunkX && lastChunk.chunkY == chunkY) {
+            return lastChunk;
+        }
+        Long key = (long) chunkX << 32 | (chunkY & 0xFFFFFFFFL);
+        Chunk chunk = chunks.get(key);
+        if (chunk == null) {
+            Integer slot = spillSlots.get(key);
+            if (slot != null) {
+                chunk = load(chunkX, chunkY, slot);
+            } else if (create) {
+                chunk = generate(chunkX, chunkY);
+            } else {
+                return null;
+            }
+            chunks.put(key, chunk);
+        }
+        lastChunk = chunk;
+        return chunk;
+    }
+
+    /**
+     * Creates a chunk: its mines, and the numbers of neighbouring mines of its dots, which depend on the mines
+     * of the eight chunks around it.
+     */
+    private Chunk generate(int chunkX, int chunkY) {
+        for (int k = 0; k < 9; k++) {
+            generateMines(chunkX + k % 3 - 1, chunkY + k / 3 - 1, mineRows[k]);
+        }
+        Chunk chunk = new Chunk(chunkX, chunkY);
+        for (int y = 0; y < CHUNK_SIZE; y++) {
+            for (int x = 0; x < CHUNK_SIZE; x++) {
+                int neighbours = 0;
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        if ((dx != 0 || dy != 0) && isDrawnMine(x + dx, y + dy)) {
+                            neighbours++;
+                        }
+                    }
+                }
+                int state = GameModel.COVERED | neighbours | (isDrawnMine(x, y) ? GameModel.MINED : 0);
+                chunk.dots[y << CHUNK_SHIFT | x] = (byte) state;
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Returns true if the dot at location (x,y), relative to the chunk being generated and at most one dot outside it,
+     * is mined, looking into the mines drawn for the chunk and its neighbours.
+     */
+    private boolean isDrawnMine(int x, int y) {
+        int column = x < 0 ? 0 : x < CHUNK_SIZE ? 1 : 2;
+        int row = y < 0 ? 0 : y < CHUNK_SIZE ? 1 : 2;
+        return (mineRows[3 * row + column][y & CHUNK_MASK] >>> (x & CHUNK_MASK) & 1) != 0;
+    }
+
+    /**
+     * Draws the mines of a chunk, one long per row, from the seed of the board and the position of the chunk only.
+     * The mines are sampled with Floyd's algorithm, then those around (0,0) are removed; the chunks beyond the limits
+     * of the board have no mines.
+     *
+     * @param chunkX the x coordinate of the chunk
+     * @param chunkY the y coordinate of the chunk
+     * @param rows   the rows in which the mines are set
+     */
+    private void generateMines(int chunkX, int chunkY, long[] rows) {
+        Arrays.fill(rows, 0);
+        if (chunkX < -LIMIT >> CHUNK_SHIFT || chunkX >= LIMIT >> CHUNK_SHIFT
+                || chunkY < -LIMIT >> CHUNK_SHIFT || chunkY >= LIMIT >> CHUNK_SHIFT) {
+            return;
+        }
+        placementGenerator.setSeed(chunkSeed(chunkX, chunkY));
+        for (int j = CHUNK_DOTS - minesPerChunk; j < CHUNK_DOTS; j++) {
+            int t = placementGenerator.nextInt(j + 1);
+            int dot = (rows[t >> CHUNK_SHIFT] >>> (t & CHUNK_MASK) & 1) != 0 ? j : t;
+            rows[dot >> CHUNK_SHIFT] |= 1L << (dot & CHUNK_MASK);
+        }
+        for (int y = -1; y <= 1; y++) {
+            for (int x = -1; x <= 1; x++) {
+                if (x >> CHUNK_SHIFT == chunkX && y >> CHUNK_SHIFT == chunkY) {
+                    rows[y & CHUNK_MASK] &= ~(1L << (x & CHUNK_MASK));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the seed of a chunk, mixing the seed of the board with the position of the chunk
+     * (the finalizer of MurmurHash3), so that neighbouring chunks get unrelated mines.
+     */
+    private long chunkSeed(int chunkX, int chunkY) {
+        long h = seed ^ ((long) chunkX << 32 | (chunkY & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * Writes an evicted chunk to its slot of the spill file, allocating a slot the first time.
+     * A chunk read back from the file and not changed since is not written again.
+     */
+    private void spill(Chunk chunk) {
+        chunk.resident = false;
+        if (!chunk.dirty) {
+            return;
+        }
+        Long key = (long) chunk.chunkX << 32 | (chunk.chunkY & 0xFFFFFFFFL);
+        Integer slot = spillSlots.get(key);
+        if (slot == null) {
+            slot = spillSlots.size();
+            spillSlots.put(key, slot);
+        }
+        spillBuffer.clear();
+        spillBuffer.put(chunk.dots).flip();
+        try {
+            long position = (long) slot * CHUNK_DOTS;
+            while (spillBuffer.hasRemaining()) {
+                position += spillFile.write(spillBuffer, position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the spill file", e);
+        }
+        numberOfSpills++;
+    }
+
+    /**
+     * Reads a chunk back from its slot of the spill file.
+     */
+    private Chunk load(int chunkX, int chunkY, int slot) {
+        Chunk chunk = new Chunk(chunkX, chunkY);
+        ByteBuffer buffer = ByteBuffer.wrap(chunk.dots);
+        try {
+            long position = (long) slot * CHUNK_DOTS;
+            while (buffer.hasRemaining()) {
+                int read = spillFile.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("Truncated spill file");
+                }
+                position += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the spill file", e);
+        }
+        chunk.dirty = false;
+        return chunk;
+    }
+}
@@ -3,30 +3,28 @@ package model;
 /**
  * The class <b>DotInfo</b> is a simple helper class to store the state
  * (e.g. clicked, mined, number of neighbouring mines...) at the dot position (x,y).
+ * It is a view on the packed board of a GameModel: it holds no state of its own,
+ * so changes made through it are visible in the model and vice versa.
  */
 public class DotInfo {
 
-    private int x;
-    private int y;
-    private boolean mined;
-    private boolean covered;
-    private boolean wasClicked;
-    private int neighbouringMines;
-    private boolean flag;
+    private final GameModel gameModel;
+    private final int x;
+    private final int y;
+    private final int index;
 
     /**
      * Constructor used to initialize the instance variables.
      *
-     * @param x the x coordinate
-     * @param y the y coordinate
+     * @param gameModel the model backing this view
+     * @param x         the x coordinate
+     * @param y         the y coordinate
      */
-    public DotInfo(int x, int y) {
+    DotInfo(GameModel gameModel, int x, int y) {
+        this.gameModel = gameModel;
         this.x = x;
         this.y = y;
-        mined = false;
-        covered = true;
-        wasClicked = false;
-        flag = false;
+        index = y * gameModel.getWidth() + x;
     }
 
     /**
@@ -51,7 +49,7 @@ public class DotInfo {
      * Setter method for the attribute mined changing to true;
      */
     public void setMined() {
-        mined = true;
+        gameModel.setState(index, GameModel.MINED, true);
     }
 
     /**
@@ -60,14 +58,14 @@ public class DotInfo {
      * @return the value of the attribute mined
      */
     public boolean isMined() {
-        return mined;
+        return (gameModel.getState(index) & GameModel.MINED) != 0;
     }
 
     /**
      * Setter method for the attribute covered changing to false.
      */
     public void uncover() {
-        covered = false;
+        gameModel.setState(index, GameModel.COVERED, false);
     }
 
     /**
@@ -76,14 +74,14 @@ public class DotInfo {
      * @return the value of the attribute covered
      */
     public boolean isCovered() {
-        return covered;
+        return (gameModel.getState(index) & GameModel.COVERED) != 0;
     }
 
     /**
      * Setter method for the attribute wasClicked changing to true.
      */
     public void click() {
-        wasClicked = true;
+        gameModel.setState(index, GameModel.CLICKED, true);
     }
 
     /**
@@ -92,7 +90,7 @@ public class DotInfo {
      * @return the value of the attribute wasClicked
      */
     public boolean hasBeenClicked() {
-        return wasClicked;
+        return (gameModel.getState(index) & GameModel.CLICKED) != 0;
     }
 
     /**
@@ -101,7 +99,7 @@ public class DotInfo {
      * @return neighbouringMines
      */
     public int getNeighbouringMines() {
-        return neighbouringMines;
+        return gameModel.getNeighbouringMines(x, y);
     }
 
     /**
@@ -110,7 +108,8 @@ public class DotInfo {
      * @param neighbouringMines new value of the attribute neighbouringMines
      */
     public void setNeighbouringMines(int neighbouringMines) {
-        this.neighbouringMines = neighbouringMines;
+        gameModel.setNeighbouringMines(index, neighbouringMines);
+        gameModel.markChanged(index);
     }
 
     /**
@@ -119,7 +118,7 @@ public class DotInfo {
      * @return the value of the attribute
      */
     public boolean isFlag() {
-        return flag;
+        return (gameModel.getState(index) & GameModel.FLAG) != 0;
     }
 
     /**
@@ -128,6 +127,6 @@ public class DotInfo {
      * @param flag new value of the attribute flag
      */
     public void setFlag(boolean flag) {
-        this.flag = flag;
+        gameModel.setState(index, GameModel.FLAG, flag);
     }
 }
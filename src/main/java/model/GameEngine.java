@@ -0,0 +1,274 @@
+package model;
+
+import metrics.Metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Random;
+
+/**
+ * The class <b>GameEngine</b> plays the game on a GameModel, without any user interface.
+ * It applies the rules of the game (reveal, flag, chord, end of the game) and returns a MoveResult for each move,
+ * so that games can be driven by the Swing controller, by tests or by bots alike.
+ * The engine is not thread-safe: a caller sharing the model with other threads must synchronize on the model.
+ */
+public class GameEngine {
+
+    private final GameModel gameModel;
+    private final MoveResult result = new MoveResult();
+    private Solver solver;
+    private MoveJournal journal;
+    private boolean over;
+
+    /**
+     * Constructor used for initializing an engine on a new model.
+     *
+     * @param width         the width of the board
+     * @param height        the height of the board
+     * @param numberOfMines the number of mines to hide in the board
+     * @param seedGenerator the generator used to draw the seed of each game
+     */
+    public GameEngine(int width, int height, int numberOfMines, Random seedGenerator) {
+        this(new GameModel(width, height, numberOfMines, seedGenerator));
+    }
+
+    /**
+     * Constructor used for initializing an engine on an existing model, whose game has not started yet.
+     *
+     * @param gameModel the model of the game
+     */
+    public GameEngine(GameModel gameModel) {
+        this.gameModel = gameModel;
+    }
+
+    /**
+     * Getter method for the model of the game.
+     *
+     * @return the model of the game
+     */
+    public GameModel getModel() {
+        return gameModel;
+    }
+
+    /**
+     * Returns the solver following this game. It is created on the first call, from the current state of the board,
+     * and is then kept up to date with the dots uncovered by each move.
+     *
+     * @return the solver of the game
+     */
+    public Solver getSolver() {
+        if (solver == null) {
+            solver = new Solver(gameModel);
+            solver.rebuild();
+        }
+        return solver;
+    }
+
+    /**
+     * Records the moves played from now on in the given journal, or stops recording them if it is null.
+     * Only the moves that change the game are recorded. The journal is not closed by the engine.
+     *
+     * @param journal the journal of the current game, or null
+     */
+    public void setJournal(MoveJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Takes into account a board that has just been restored from a saved game: the solver is rebuilt from it.
+     *
+     * @param over true if the restored game is over
+     */
+    void restored(boolean over) {
+        this.over = over;
+        if (solver != null) {
+            solver.rebuild();
+        }
+    }
+
+    /**
+     * Returns true if the game is over, that is, a mine has been revealed or all the other dots have been uncovered.
+     *
+     * @return true if the game is over, false otherwise
+     */
+    public boolean isOver() {
+        return over;
+    }
+
+    /**
+     * Starts a new game with a new seed.
+     */
+    public void reset() {
+        gameModel.reset();
+        over = false;
+        if (solver != null) {
+            solver.reset();
+        }
+    }
+
+    /**
+     * Starts a new game with the given seed.
+     *
+     * @param seed the seed used to place the mines
+     */
+    public void reset(long seed) {
+        gameModel.reset(seed);
+        over = false;
+        if (solver != null) {
+            solver.reset();
+        }
+    }
+
+    /**
+     * Starts a new game with the given seed, keeping the dot at location (safeX,safeY) and its neighbours free of mines.
+     *
+     * @param seed  the seed used to place the mines
+     * @param safeX the x coordinate of the dot kept free of mines
+     * @param safeY the y coordinate of the dot kept free of mines
+     */
+    public void reset(long seed, int safeX, int safeY) {
+        gameModel.reset(seed, safeX, safeY);
+        over = false;
+        if (solver != null) {
+            solver.reset();
+        }
+    }
+
+    /**
+     * Reveals the dot at location (x,y). If it has no mined neighbour, the zone around it is uncovered as well.
+     * Covered dots with a flag, uncovered dots and moves played once the game is over are ignored.
+     * If the placement of the mines was deferred, the first reveal places them around the dot.
+     * When the move ends the game, all the mines are uncovered.
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     * @return the result of the move, which is overwritten by the next move
+     */
+    public MoveResult reveal(int x, int y) {
+        result.clear();
+        if (over || !gameModel.isCovered(x, y) || gameModel.isFlag(x, y)) {
+            return result;
+        }
+        if (gameModel.isPlacementPending()) {
+            gameModel.placeDeferredMines(x, y);
+        }
+        gameModel.step();
+        gameModel.click(x, y);
+        open(x, y);
+        return finish(MoveJournal.REVEAL, x, y);
+    }
+
+    /**
+     * Puts or removes the flag on the covered dot at location (x,y).
+     * A flag left on a dot uncovered by a zone can still be removed.
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     * @return true if the flag was changed, false if the move was ignored
+     */
+    public boolean toggleFlag(int x, int y) {
+        if (over || (!gameModel.isCovered(x, y) && !gameModel.isFlag(x, y))) {
+            return false;
+        }
+        gameModel.setFlag(x, y, !gameModel.isFlag(x, y));
+        record(MoveJournal.FLAG, x, y);
+        return true;
+    }
+
+    /**
+     * Chords on the uncovered dot at location (x,y): if as many of its covered neighbours are flagged
+     * as it has mined neighbours, all its other covered neighbours are revealed at once, through the same cascade as a reveal.
+     * A flag left on a dot that a cascade has uncovered does not count.
+     * The move is ignored otherwise. The check takes constant time, thanks to the flag counts of the model.
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     * @return the result of the move, which is overwritten by the next move
+     */
+    public MoveResult chord(int x, int y) {
+        result.clear();
+        if (over || !gameModel.canChord(x, y)) {
+            return result;
+        }
+        gameModel.step();
+        for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, gameModel.getHeight() - 1); j++) {
+            for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, gameModel.getWidth() - 1); i++) {
+                if (gameModel.isCovered(i, j) && !gameModel.isFlag(i, j)) {
+                    if (gameModel.isMined(i, j)) {
+                        gameModel.click(i, j);
+                    }
+                    open(i, j);
+                }
+            }
+        }
+        return finish(MoveJournal.CHORD, x, y);
+    }
+
+    /**
+     * Uncovers the dot at location (x,y) and, if it is blank, the zone around it, recording them in the result.
+     * A mined dot makes the move a losing one.
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     */
+    private void open(int x, int y) {
+        gameModel.uncover(x, y);
+        result.getSpans().add(y, x, x);
+        result.addOpened(1);
+        if (gameModel.isMined(x, y)) {
+            result.setOutcome(MoveResult.Outcome.MINE);
+        } else if (gameModel.isBlank(x, y)) {
+            if (Metrics.isEnabled()) {
+                long start = System.nanoTime();
+                int opened = gameModel.revealZone(x, y, result.getSpans());
+                Metrics.CASCADE_TIME.record(System.nanoTime() - start);
+                Metrics.CASCADE_SIZE.record(opened);
+                result.addOpened(opened);
+            } else {
+                result.addOpened(gameModel.revealZone(x, y, result.getSpans()));
+            }
+        }
+    }
+
+    /**
+     * Sets the outcome of a move that uncovered at least one dot, ends the game if it is lost or won,
+     * and records the move in the journal.
+     *
+     * @param type the type of the move, as defined in MoveJournal
+     * @param x    the x coordinate of the dot played
+     * @param y    the y coordinate of the dot played
+     * @return the result of the move
+     */
+    private MoveResult finish(int type, int x, int y) {
+        if (solver != null) {
+            solver.observe(result.getSpans());
+        }
+        if (result.getOutcome() != MoveResult.Outcome.MINE) {
+            result.setOutcome(gameModel.isFinished() ? MoveResult.Outcome.WON : MoveResult.Outcome.SAFE);
+        }
+        if (result.getOutcome() != MoveResult.Outcome.SAFE) {
+            over = true;
+            gameModel.revealMines();
+        }
+        record(type, x, y);
+        return result;
+    }
+
+    /**
+     * Records a move in the journal, if there is one.
+     *
+     * @param type the type of the move, as defined in MoveJournal
+     * @param x    the x coordinate of the dot played
+     * @param y    the y coordinate of the dot played
+     */
+    private void record(int type, int x, int y) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.record(type, y * gameModel.getWidth() + x, over);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the journal", e);
+        }
+    }
+}
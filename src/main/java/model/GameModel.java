@@ -1,8 +1,7 @@
 package model;
 
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.Random;
-import java.util.Set;
 
 /**
  * The class GameModel holds the model, the state of the systems.
@@ -13,16 +12,62 @@ import java.util.Set;
  * The model provides all of this information to the other classes trough appropriate getters.
  * The controller can also update the model through setters.
  * Finally, the model is also in charge of initializing the game.
+ * <p>
+ * The board is stored packed, one byte per dot, in row-major order (index = y * width + x).
+ * The low four bits hold the number of neighbouring mines, the high four bits the mined, covered, clicked and flag states.
+ * The indices of the mines are also kept in a list filled during the placement, so that the mines can be revealed
+ * at the end of the game without scanning the board.
+ * A second array counts the flags on the covered dots around each dot, so that a chord can be checked
+ * without looking at the neighbours.
+ * DotInfo objects are only created as views when a caller asks for one through <b>get</b>.
  */
 public class GameModel {
 
+    static final int NEIGHBOURS_MASK = 0x0F;
+    static final int MINED = 0x10;
+    static final int COVERED = 0x20;
+    static final int CLICKED = 0x40;
+    static final int FLAG = 0x80;
+
+    /**
+     * Value of the neighbours bits of a dot whose number of neighbouring mines has not been computed yet.
+     */
+    private static final int UNKNOWN_NEIGHBOURS = NEIGHBOURS_MASK;
+
+    /**
+     * Column and row offsets of the eight neighbours of a dot.
+     */
+    private static final int[] NEIGHBOUR_DX = {-1, 0, 1, -1, 1, -1, 0, 1};
+    private static final int[] NEIGHBOUR_DY = {-1, -1, -1, 0, 0, 1, 1, 1};
+
     private int widthOfGame;
     private int heightOfGame;
-    private DotInfo[][] model;
+    private byte[] model;
+    private final byte[] adjacentFlags;
+    private int[] mineIndices;
+    private int numberOfMineIndices;
     private int numberOfSteps;
     private int numberUncovered;
     private int numberOfMines;
     private int numberOfFlags;
+    private long seed;
+    private final Random seedGenerator;
+    private final Random placementGenerator = new Random();
+    private boolean lazyNeighbours;
+    private boolean deferredPlacement;
+    private boolean safeNeighbourhood;
+    private boolean placementPending;
+    private boolean stale;
+    private final int[] excludedDots = new int[9];
+    private int numberOfExcluded;
+    private final int[] neighbourOffsets;
+    private int[] zoneQueue;
+    private int[] seedStack = new int[64];
+    private int seedCount;
+    private final long[] changedBits;
+    private int[] changedList = new int[64];
+    private int numberOfChanges;
+    private boolean allChanged;
 
     /**
      * Constructor to initialize the model to a given size of board.
@@ -32,75 +77,379 @@ public class GameModel {
      * @param numberOfMines the number of mines to hide in the board
      */
     public GameModel(int width, int height, int numberOfMines) {
+        this(width, height, numberOfMines, new Random());
+    }
+
+    /**
+     * Constructor to initialize the model to a given size of board,
+     * drawing the seed of each game from the given generator.
+     * Passing a generator built from a fixed seed gives a reproducible sequence of games.
+     *
+     * @param width         the width of the board
+     * @param height        the height of the board
+     * @param numberOfMines the number of mines to hide in the board
+     * @param seedGenerator the generator used to draw the seed of each game
+     */
+    public GameModel(int width, int height, int numberOfMines, Random seedGenerator) {
+        this(width, height, numberOfMines, seedGenerator, true);
+    }
+
+    /**
+     * Constructor to initialize the model to a given size of board, optionally without starting a game.
+     * Without a game, nothing is placed or counted: the board is empty until the first reset, which must come first.
+     * A caller that defers the placement of the mines starts that way, so that it never pays for a full placement
+     * before its first reveal; a caller that restores a saved board does too.
+     *
+     * @param width         the width of the board
+     * @param height        the height of the board
+     * @param numberOfMines the number of mines to hide in the board
+     * @param seedGenerator the generator used to draw the seed of each game
+     * @param start         true to start a game, false to leave the board empty
+     */
+    public GameModel(int width, int height, int numberOfMines, Random seedGenerator, boolean start) {
         widthOfGame = width;
         heightOfGame = height;
-        model = new DotInfo[heightOfGame][widthOfGame];
+        model = new byte[heightOfGame * widthOfGame];
+        adjacentFlags = new byte[heightOfGame * widthOfGame];
+        mineIndices = new int[Math.max(numberOfMines, 1)];
         this.numberOfMines = numberOfMines;
-        reset();
+        this.seedGenerator = seedGenerator;
+        changedBits = new long[(heightOfGame * widthOfGame + 63) >>> 6];
+        neighbourOffsets = new int[NEIGHBOUR_DX.length];
+        for (int n = 0; n < neighbourOffsets.length; n++) {
+            neighbourOffsets[n] = NEIGHBOUR_DY[n] * width + NEIGHBOUR_DX[n];
+        }
+        if (start) {
+            reset();
+        }
     }
 
     /**
-     * Resets the model to (re)start a game. The previous game (if there is one) is cleared up.
+     * Resets the model to (re)start a game with a new seed. The previous game (if there is one) is cleared up.
      */
     public void reset() {
+        reset(seedGenerator.nextLong());
+    }
+
+    /**
+     * Resets the model to (re)start a game with the given seed. The previous game (if there is one) is cleared up.
+     * The same seed always gives the same layout of mines.
+     *
+     * @param seed the seed used to place the mines
+     */
+    public void reset(long seed) {
+        numberOfExcluded = 0;
+        start(seed, deferredPlacement);
+    }
+
+    /**
+     * Resets the model to (re)start a game with the given seed, keeping the dot at location (safeX,safeY)
+     * and its neighbours free of mines, so that revealing it first always opens a zone.
+     * If the board is too crowded for that, only the dot itself is kept free of mines.
+     * The same seed and safe dot always give the same layout of mines.
+     *
+     * @param seed  the seed used to place the mines
+     * @param safeX the x coordinate of the dot kept free of mines
+     * @param safeY the y coordinate of the dot kept free of mines
+     */
+    public void reset(long seed, int safeX, int safeY) {
+        exclude(safeX, safeY, true);
+        start(seed, false);
+    }
+
+    /**
+     * Places the mines of a game whose placement was deferred by the reset, keeping the dot at location (safeX,safeY)
+     * free of mines, as well as its neighbours if <b>setSafeNeighbourhood</b> was enabled.
+     * It must be called before the first dot of the game is uncovered; it does nothing if the mines are already placed.
+     *
+     * @param safeX the x coordinate of the dot revealed first
+     * @param safeY the y coordinate of the dot revealed first
+     */
+    public void placeDeferredMines(int safeX, int safeY) {
+        if (!placementPending) {
+            return;
+        }
+        exclude(safeX, safeY, safeNeighbourhood);
+        place();
+    }
+
+    /**
+     * Returns true if the mines of the current game have not been placed yet, because the placement was deferred.
+     *
+     * @return true if the mines will be placed by the first reveal
+     */
+    public boolean isPlacementPending() {
+        return placementPending;
+    }
+
+    /**
+     * Chooses whether the reset places the mines, or only clears the game and lets the first reveal
+     * place them through <b>placeDeferredMines</b>, so that the first dot revealed is never mined.
+     * A deferred reset takes constant time: the board is only marked as stale, and cleared by the first change made to it.
+     * The choice takes effect at the next reset.
+     *
+     * @param deferredPlacement true to place the mines at the first reveal, false to place them at reset
+     */
+    public void setDeferredPlacement(boolean deferredPlacement) {
+        this.deferredPlacement = deferredPlacement;
+    }
+
+    /**
+     * Chooses whether a deferred placement also keeps the neighbours of the first dot revealed free of mines,
+     * so that the first reveal always opens a zone.
+     *
+     * @param safeNeighbourhood true to keep the neighbours of the first dot free of mines, false for the dot only
+     */
+    public void setSafeNeighbourhood(boolean safeNeighbourhood) {
+        this.safeNeighbourhood = safeNeighbourhood;
+    }
+
+    /**
+     * Chooses the dots kept free of mines by the next placement: the given dot, and its neighbours if asked for.
+     * If the board is too crowded to keep the neighbours free as well, only the dot itself is kept free of mines.
+     *
+     * @param safeX             the x coordinate of the dot kept free of mines
+     * @param safeY             the y coordinate of the dot kept free of mines
+     * @param withNeighbourhood true to keep the neighbours free of mines as well
+     */
+    private void exclude(int safeX, int safeY, boolean withNeighbourhood) {
+        numberOfExcluded = 0;
+        if (withNeighbourhood) {
+            for (int j = Math.max(safeY - 1, 0); j <= Math.min(safeY + 1, heightOfGame - 1); j++) {
+                for (int i = Math.max(safeX - 1, 0); i <= Math.min(safeX + 1, widthOfGame - 1); i++) {
+                    excludedDots[numberOfExcluded++] = j * widthOfGame + i;
+                }
+            }
+        }
+        if (model.length - numberOfExcluded < numberOfMines || numberOfExcluded == 0) {
+            excludedDots[0] = safeY * widthOfGame + safeX;
+            numberOfExcluded = 1;
+        }
+    }
+
+    /**
+     * Starts a new game with the given seed. The board is only marked as stale here;
+     * unless the placement is deferred, it is then cleared and the mines are placed outside of the excluded dots.
+     *
+     * @param seed     the seed used to place the mines
+     * @param deferred true to leave the placement to the first reveal
+     */
+    private void start(long seed, boolean deferred) {
+        this.seed = seed;
         numberOfSteps = 0;
         numberUncovered = heightOfGame * widthOfGame;
         numberOfFlags = 0;
-        Random generator = new Random();
+        stale = true;
+        numberOfMineIndices = 0;
+        placementPending = deferred;
+        allChanged = true;
+        if (!deferred) {
+            place();
+        }
+    }
+
+    /**
+     * Clears the board if it is stale, then places the mines of the current seed.
+     */
+    private void place() {
+        clearStale();
+        placementGenerator.setSeed(seed);
+        placeMines(placementGenerator);
+        placementPending = false;
+    }
+
+    /**
+     * Starts restoring a saved game: the board is emptied and the counters are set,
+     * then each dot must be restored with <b>restoreDot</b>, and the restoration completed with <b>endRestore</b>.
+     *
+     * @param seed             the seed of the saved game
+     * @param numberOfSteps    the number of steps of the saved game
+     * @param placementPending true if the mines of the saved game were not placed yet
+     */
+    void beginRestore(long seed, int numberOfSteps, boolean placementPending) {
+        this.seed = seed;
+        this.numberOfSteps = numberOfSteps;
+        this.placementPending = placementPending;
+        numberUncovered = 0;
+        numberOfFlags = 0;
+        numberOfMineIndices = 0;
+        stale = false;
+        allChanged = true;
+    }
+
+    /**
+     * Restores the state bits of a dot, without its number of neighbouring mines, updating the counters of the model.
+     *
+     * @param index the row-major index of the dot
+     * @param state the MINED, COVERED, CLICKED and FLAG bits of the dot
+     */
+    void restoreDot(int index, int state) {
+        model[index] = (byte) state;
+        if ((state & COVERED) != 0) {
+            numberUncovered++;
+        }
+        if ((state & FLAG) != 0) {
+            numberOfFlags++;
+        }
+    }
 
-        Set<Integer> minedSet = new HashSet<>();
-        while (minedSet.size() < numberOfMines) {
-            minedSet.add(generator.nextInt(numberUncovered));
+    /**
+     * Completes the restoration of a saved game by computing the numbers of neighbouring mines, the flag counts
+     * and the list of the mines from the restored dots.
+     */
+    void endRestore() {
+        Arrays.fill(adjacentFlags, (byte) 0);
+        for (int index = 0; index < model.length; index++) {
+            if ((model[index] & (COVERED | FLAG)) == (COVERED | FLAG)) {
+                addAdjacentFlag(index, 1);
+            }
+            if ((model[index] & MINED) != 0) {
+                addMineIndex(index);
+            }
         }
+        if (lazyNeighbours) {
+            for (int index = 0; index < model.length; index++) {
+                model[index] |= UNKNOWN_NEIGHBOURS;
+            }
+            return;
+        }
+        for (int index = 0; index < model.length; index++) {
+            if ((model[index] & MINED) != 0) {
+                addNeighbouringMine(index);
+            }
+        }
+    }
 
-        for (int i = 0; i < heightOfGame; i++) {
-            for (int j = 0; j < widthOfGame; j++) {
-                model[i][j] = new DotInfo(j, i);
-                if (minedSet.contains(i * widthOfGame + j)) {
-                    minedSet.remove(i * widthOfGame + j);
-                    model[i][j].setMined();
-                }
+    /**
+     * Clears the board left by the previous game, if it has not been cleared since the last reset.
+     * It is called before any change to the board, so that a stale board is never written to.
+     */
+    private void clearStale() {
+        if (!stale) {
+            return;
+        }
+        if (lazyNeighbours) {
+            Arrays.fill(model, (byte) (COVERED | UNKNOWN_NEIGHBOURS));
+        } else {
+            Arrays.fill(model, (byte) COVERED);
+        }
+        Arrays.fill(adjacentFlags, (byte) 0);
+        stale = false;
+    }
+
+    /**
+     * Places the mines using Floyd's sampling algorithm, using the MINED bit of the board as the set of chosen dots.
+     * Each mine costs exactly one draw from the generator, whatever the density of the board.
+     * The excluded dots are skipped by sampling among the other dots only, then mapping each drawn rank to its dot.
+     * Unless the neighbours are computed lazily, each placed mine also adds one to the count of its neighbours,
+     * so the counts cost O(mines) instead of a second pass over the whole board.
+     *
+     * @param generator the generator used to draw the positions of the mines
+     */
+    private void placeMines(Random generator) {
+        int size = model.length - numberOfExcluded;
+        for (int k = size - numberOfMines; k < size; k++) {
+            int index = skipExcluded(generator.nextInt(k + 1));
+            if ((model[index] & MINED) != 0) {
+                index = skipExcluded(k);
+            }
+            model[index] |= MINED;
+            mineIndices[numberOfMineIndices++] = index;
+            if (!lazyNeighbours) {
+                addNeighbouringMine(index);
             }
         }
+    }
 
-        for (int i = 0; i < heightOfGame; i++) {
-            for (int j = 0; j < widthOfGame; j++) {
-                int neighbouringMines = 0;
+    /**
+     * Returns the index of the dot of the given rank among the dots that are not excluded.
+     * The excluded dots are sorted, so each one before the rank shifts it by one.
+     *
+     * @param rank the rank of the dot among the dots that are not excluded
+     * @return the row-major index of the dot
+     */
+    private int skipExcluded(int rank) {
+        for (int k = 0; k < numberOfExcluded && excludedDots[k] <= rank; k++) {
+            rank++;
+        }
+        return rank;
+    }
 
-                if (i > 0) {
-                    if (model[i - 1][j].isMined()) {
-                        neighbouringMines++;
-                    }
-                    if (j > 0 && model[i - 1][j - 1].isMined()) {
-                        neighbouringMines++;
-                    }
-                    if (j < widthOfGame - 1 && model[i - 1][j + 1].isMined()) {
-                        neighbouringMines++;
-                    }
+    /**
+     * Adds one to the number of neighbouring mines of the (up to) eight neighbours of the dot at the given index.
+     * Dots away from the border of the board take the fast path, without any bound check.
+     *
+     * @param index the row-major index of the mined dot
+     */
+    private void addNeighbouringMine(int index) {
+        int x = index % widthOfGame;
+        int y = index / widthOfGame;
+        if (x > 0 && y > 0 && x < widthOfGame - 1 && y < heightOfGame - 1) {
+            int above = index - widthOfGame;
+            int below = index + widthOfGame;
+            model[above - 1]++;
+            model[above]++;
+            model[above + 1]++;
+            model[index - 1]++;
+            model[index + 1]++;
+            model[below - 1]++;
+            model[below]++;
+            model[below + 1]++;
+            return;
+        }
+        for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, heightOfGame - 1); j++) {
+            for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, widthOfGame - 1); i++) {
+                if (i != x || j != y) {
+                    model[j * widthOfGame + i]++;
                 }
+            }
+        }
+    }
 
-                if (j > 0 && model[i][j - 1].isMined()) {
-                    neighbouringMines++;
-                }
-                if (j < widthOfGame - 1 && model[i][j + 1].isMined()) {
+    /**
+     * Returns the number of neighbouring mines of the dot at the given index,
+     * computing and storing it first if the neighbours are computed lazily and it is not known yet.
+     *
+     * @param index the row-major index of the dot
+     * @return the number of neighbouring mines of the dot
+     */
+    private int neighbours(int index) {
+        int neighbouringMines = model[index] & NEIGHBOURS_MASK;
+        if (neighbouringMines != UNKNOWN_NEIGHBOURS) {
+            return neighbouringMines;
+        }
+        int x = index % widthOfGame;
+        int y = index / widthOfGame;
+        neighbouringMines = 0;
+        for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, heightOfGame - 1); j++) {
+            for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, widthOfGame - 1); i++) {
+                if ((i != x || j != y) && (model[j * widthOfGame + i] & MINED) != 0) {
                     neighbouringMines++;
                 }
-
-                if (i < heightOfGame - 1) {
-                    if (model[i + 1][j].isMined()) {
-                        neighbouringMines++;
-                    }
-                    if (j > 0 && model[i + 1][j - 1].isMined()) {
-                        neighbouringMines++;
-                    }
-                    if (j < widthOfGame - 1 && model[i + 1][j + 1].isMined()) {
-                        neighbouringMines++;
-                    }
-                }
-
-                model[i][j].setNeighbouringMines(neighbouringMines);
             }
         }
+        setNeighbouringMines(index, neighbouringMines);
+        return neighbouringMines;
+    }
+
+    /**
+     * Chooses whether the number of neighbouring mines of each dot is computed when the mines are placed,
+     * or only the first time it is asked for. Computing them lazily makes the reset of huge boards cheaper
+     * when only a small region of the board is ever revealed. The choice takes effect at the next reset.
+     *
+     * @param lazyNeighbours true to compute the neighbouring mines on demand, false to compute them at reset
+     */
+    public void setLazyNeighbours(boolean lazyNeighbours) {
+        this.lazyNeighbours = lazyNeighbours;
+    }
+
+    /**
+     * Getter method for the seed of the current game.
+     *
+     * @return the seed used to place the mines of the current game
+     */
+    public long getSeed() {
+        return seed;
     }
 
     /**
@@ -129,7 +478,7 @@ public class GameModel {
      * @return the status of the dot at location (i,j)
      */
     public boolean isMined(int i, int j) {
-        return model[j][i].isMined();
+        return !stale && (model[j * widthOfGame + i] & MINED) != 0;
     }
 
     /**
@@ -140,7 +489,7 @@ public class GameModel {
      * @return the status of the dot at location (i,j)
      */
     public boolean hasBeenClicked(int i, int j) {
-        return model[j][i].hasBeenClicked();
+        return !stale && (model[j * widthOfGame + i] & CLICKED) != 0;
     }
 
     /**
@@ -151,7 +500,7 @@ public class GameModel {
      * @return the status of the dot at location (i,j)
      */
     public boolean isBlank(int i, int j) {
-        return model[j][i].getNeighbouringMines() == 0;
+        return getNeighbouringMines(i, j) == 0;
     }
 
     /**
@@ -162,7 +511,7 @@ public class GameModel {
      * @return the status of the dot at location (i,j)
      */
     public boolean isCovered(int i, int j) {
-        return model[j][i].isCovered();
+        return stale || (model[j * widthOfGame + i] & COVERED) != 0;
     }
 
     /**
@@ -173,7 +522,7 @@ public class GameModel {
      * @return the status of the dot at location (i,j)
      */
     public boolean isFlag(int i, int j) {
-        return model[j][i].isFlag();
+        return !stale && (model[j * widthOfGame + i] & FLAG) != 0;
     }
 
     /**
@@ -184,7 +533,37 @@ public class GameModel {
      * @return the number of neighbouring mines at location (i,j)
      */
     public int getNeighbouringMines(int i, int j) {
-        return model[j][i].getNeighbouringMines();
+        return placementPending ? 0 : neighbours(j * widthOfGame + i);
+    }
+
+    /**
+     * Returns the number of flags on the covered neighbours of the dot at location (i,j).
+     * It is kept up to date by <b>setFlag</b>, and by every method that uncovers a dot: a flag left on a dot
+     * that has been uncovered safely is known to be wrong, so it does not count.
+     *
+     * @param i the x coordinate of the dot
+     * @param j the y coordinate of the dot
+     * @return the number of flagged covered neighbours of the dot
+     */
+    public int getAdjacentFlags(int i, int j) {
+        return stale ? 0 : adjacentFlags[j * widthOfGame + i];
+    }
+
+    /**
+     * Returns true if a chord can be played on the dot at location (i,j), that is, the dot is an uncovered number
+     * with as many flags on its covered neighbours as it has mined neighbours. The check takes constant time.
+     *
+     * @param i the x coordinate of the dot
+     * @param j the y coordinate of the dot
+     * @return true if the covered, non-flagged neighbours of the dot can be revealed at once
+     */
+    public boolean canChord(int i, int j) {
+        int index = j * widthOfGame + i;
+        if (stale || (model[index] & (COVERED | MINED)) != 0) {
+            return false;
+        }
+        int neighbouringMines = neighbours(index);
+        return neighbouringMines != 0 && adjacentFlags[index] == neighbouringMines;
     }
 
     /**
@@ -194,8 +573,14 @@ public class GameModel {
      * @param j the y coordinate of the dot
      */
     public void uncover(int i, int j) {
+        clearStale();
+        int index = j * widthOfGame + i;
         numberUncovered--;
-        model[j][i].uncover();
+        if ((model[index] & (COVERED | FLAG)) == (COVERED | FLAG)) {
+            addAdjacentFlag(index, -1);
+        }
+        model[index] &= ~COVERED;
+        markChanged(index);
     }
 
     /**
@@ -205,7 +590,9 @@ public class GameModel {
      * @param j the y coordinate of the dot
      */
     public void click(int i, int j) {
-        model[j][i].click();
+        clearStale();
+        model[j * widthOfGame + i] |= CLICKED;
+        markChanged(j * widthOfGame + i);
     }
 
     /**
@@ -215,12 +602,186 @@ public class GameModel {
      * @param j the y coordinate of the dot
      */
     public void setFlag(int i, int j, boolean flag) {
-        if (!model[j][i].isFlag() && flag) {
+        if (!isFlag(i, j) && flag) {
             numberOfFlags++;
-        } else if (model[j][i].isFlag() && !flag) {
+        } else if (isFlag(i, j) && !flag) {
             numberOfFlags--;
         }
-        model[j][i].setFlag(flag);
+        setState(j * widthOfGame + i, FLAG, flag);
+    }
+
+    /**
+     * Uncovers the zone around a dot with no mined neighbour: every covered, non-mined neighbour is uncovered,
+     * and the zone keeps spreading from the uncovered neighbours that have no mined neighbour either.
+     * The dots waiting to be expanded are kept in a queue of indices that is allocated once and reused by every call.
+     *
+     * @param i the x coordinate of the dot
+     * @param j the y coordinate of the dot
+     * @return the number of dots uncovered
+     */
+    public int clearZone(int i, int j) {
+        if (zoneQueue == null) {
+            zoneQueue = new int[model.length];
+        }
+        int[] queue = zoneQueue;
+        int head = 0;
+        int tail = 0;
+        int opened = 0;
+        queue[tail++] = j * widthOfGame + i;
+        while (head < tail) {
+            int index = queue[head++];
+            int x = index % widthOfGame;
+            int y = index / widthOfGame;
+            boolean inside = x > 0 && y > 0 && x < widthOfGame - 1 && y < heightOfGame - 1;
+            for (int n = 0; n < neighbourOffsets.length; n++) {
+                int neighbour;
+                if (inside) {
+                    neighbour = index + neighbourOffsets[n];
+                } else {
+                    int nx = x + NEIGHBOUR_DX[n];
+                    int ny = y + NEIGHBOUR_DY[n];
+                    if (nx < 0 || ny < 0 || nx >= widthOfGame || ny >= heightOfGame) {
+                        continue;
+                    }
+                    neighbour = ny * widthOfGame + nx;
+                }
+                if ((model[neighbour] & (COVERED | MINED)) == COVERED) {
+                    if ((model[neighbour] & FLAG) != 0) {
+                        addAdjacentFlag(neighbour, -1);
+                    }
+                    model[neighbour] &= ~COVERED;
+                    markChanged(neighbour);
+                    numberUncovered--;
+                    opened++;
+                    if (neighbours(neighbour) == 0) {
+                        queue[tail++] = neighbour;
+                    }
+                }
+            }
+        }
+        return opened;
+    }
+
+    /**
+     * Uncovers the same zone as <b>clearZone</b>, but works on horizontal runs of dots with no mined neighbour
+     * instead of expanding the dots one by one. Each run is uncovered at once together with its numbered border,
+     * and the runs of the rows above and below are only remembered once, by their first dot.
+     * The uncovered dots are reported as horizontal spans, which do not overlap.
+     *
+     * @param i     the x coordinate of the dot, which must have no mined neighbour
+     * @param j     the y coordinate of the dot, which must have no mined neighbour
+     * @param spans the list to which the spans of uncovered dots are added, or null
+     * @return the number of dots uncovered
+     */
+    public int revealZone(int i, int j, SpanList spans) {
+        seedCount = 0;
+        int opened = revealRun(j, extendRun(i, j, -1), extendRun(i, j, 1), spans);
+        while (seedCount > 0) {
+            int index = seedStack[--seedCount];
+            if (isPendingBlank(index)) {
+                int x = index % widthOfGame;
+                int y = index / widthOfGame;
+                opened += revealRun(y, extendRun(x, y, -1), extendRun(x, y, 1), spans);
+            }
+        }
+        return opened;
+    }
+
+    /**
+     * Returns true if the dot at the given index is covered and has no mined neighbour,
+     * that is, if it still has to be expanded by <b>revealZone</b>.
+     *
+     * @param index the row-major index of the dot
+     * @return true if the dot is a covered blank dot
+     */
+    private boolean isPendingBlank(int index) {
+        return (model[index] & COVERED) != 0 && (model[index] & MINED) == 0 && neighbours(index) == 0;
+    }
+
+    /**
+     * Follows the covered blank dots of a row from (x,y) in the given direction.
+     *
+     * @param x         the x coordinate of the dot to start from
+     * @param y         the y coordinate of the dot to start from
+     * @param direction -1 to go left, 1 to go right
+     * @return the x coordinate of the last dot of the run in that direction
+     */
+    private int extendRun(int x, int y, int direction) {
+        int row = y * widthOfGame;
+        int next = x + direction;
+        while (next >= 0 && next < widthOfGame && isPendingBlank(row + next)) {
+            x = next;
+            next += direction;
+        }
+        return x;
+    }
+
+    /**
+     * Uncovers a run of blank dots of row y together with its border, that is the dots of the rows y-1 to y+1
+     * from startX-1 to endX+1. None of them can be mined. The covered blank dots of the rows above and below
+     * are not uncovered, they are pushed on the seed stack to be expanded as runs of their own.
+     *
+     * @param y      the row of the run
+     * @param startX the x coordinate of the first dot of the run
+     * @param endX   the x coordinate of the last dot of the run
+     * @param spans  the list to which the spans of uncovered dots are added, or null
+     * @return the number of dots uncovered
+     */
+    private int revealRun(int y, int startX, int endX, SpanList spans) {
+        byte[] board = model;
+        int from = Math.max(startX - 1, 0);
+        int to = Math.min(endX + 1, widthOfGame - 1);
+        int opened = 0;
+        for (int row = Math.max(y - 1, 0); row <= Math.min(y + 1, heightOfGame - 1); row++) {
+            int offset = row * widthOfGame;
+            int spanStart = -1;
+            boolean inSeed = false;
+            for (int x = from; x <= to; x++) {
+                int index = offset + x;
+                if ((board[index] & COVERED) != 0 && (row == y || neighbours(index) != 0)) {
+                    if ((board[index] & FLAG) != 0) {
+                        addAdjacentFlag(index, -1);
+                    }
+                    board[index] &= ~COVERED;
+                    markChanged(index);
+                    opened++;
+                    inSeed = false;
+                    if (spanStart < 0) {
+                        spanStart = x;
+                    }
+                    continue;
+                }
+                if ((board[index] & COVERED) == 0) {
+                    inSeed = false;
+                } else if (!inSeed) {
+                    pushSeed(index);
+                    inSeed = true;
+                }
+                if (spanStart >= 0) {
+                    if (spans != null) {
+                        spans.add(row, spanStart, x - 1);
+                    }
+                    spanStart = -1;
+                }
+            }
+            if (spanStart >= 0 && spans != null) {
+                spans.add(row, spanStart, to);
+            }
+        }
+        numberUncovered -= opened;
+        return opened;
+    }
+
+    /**
+     * Pushes the index of a dot on the seed stack of <b>revealZone</b>, growing the stack if it is full.
+     *
+     * @param index the row-major index of the dot
+     */
+    private void pushSeed(int index) {
+        if (seedCount == seedStack.length) {
+            seedStack = Arrays.copyOf(seedStack, seedStack.length * 2);
+        }
+        seedStack[seedCount++] = index;
     }
 
     /**
@@ -229,9 +790,55 @@ public class GameModel {
     public void uncoverAll() {
         for (int i = 0; i < heightOfGame; i++) {
             for (int j = 0; j < widthOfGame; j++) {
-                uncover(j, i);
+                if (isCovered(j, i)) {
+                    uncover(j, i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Uncovers all the mines that are still covered, at the end of the game.
+     * Only the mines are visited, through the list filled during the placement, so it costs O(mines) whatever the size of the board,
+     * and only the uncovered mines are recorded as changed.
+     *
+     * @return the number of mines uncovered
+     */
+    public int revealMines() {
+        int revealed = 0;
+        for (int k = 0; k < numberOfMineIndices; k++) {
+            int index = mineIndices[k];
+            if ((model[index] & COVERED) != 0) {
+                if ((model[index] & FLAG) != 0) {
+                    addAdjacentFlag(index, -1);
+                }
+                model[index] &= ~COVERED;
+                markChanged(index);
+                revealed++;
             }
         }
+        numberUncovered -= revealed;
+        return revealed;
+    }
+
+    /**
+     * Getter method for the number of mines placed on the board so far.
+     * It is 0 until the first reveal when the placement is deferred.
+     *
+     * @return the number of mines in the list of the mines
+     */
+    public int getNumberOfPlacedMines() {
+        return numberOfMineIndices;
+    }
+
+    /**
+     * Returns the row-major index (y * width + x) of the k-th mine, in the order of the placement.
+     *
+     * @param k the position of the mine, between 0 and getNumberOfPlacedMines() - 1
+     * @return the index of the mined dot
+     */
+    public int getMineIndex(int k) {
+        return mineIndices[k];
     }
 
     /**
@@ -262,14 +869,188 @@ public class GameModel {
     }
 
     /**
-     * Getter method for the DotInfo reference at location (i,j).
+     * Returns a DotInfo view of the dot at location (i,j).
+     * The view is backed by the model, a new instance is created on each call.
      *
      * @param i the x coordinate of the dot
      * @param j the y coordinate of the dot
-     * @return model[i][j]
+     * @return a DotInfo view of the dot at location (i,j)
      */
     public DotInfo get(int i, int j) {
-        return model[j][i];
+        return new DotInfo(this, i, j);
+    }
+
+    /**
+     * Returns the packed state of the dot at the given index.
+     *
+     * @param index the row-major index of the dot
+     * @return the packed state of the dot
+     */
+    int getState(int index) {
+        return stale ? COVERED : model[index] & 0xFF;
+    }
+
+    /**
+     * Sets or clears state bits of the dot at the given index, without touching the counters of the model.
+     *
+     * @param index the row-major index of the dot
+     * @param mask  the state bits to change
+     * @param value true to set the bits, false to clear them
+     */
+    void setState(int index, int mask, boolean value) {
+        clearStale();
+        int before = model[index];
+        if (value) {
+            model[index] |= mask;
+        } else {
+            model[index] &= ~mask;
+        }
+        boolean countedBefore = (before & (COVERED | FLAG)) == (COVERED | FLAG);
+        boolean countedAfter = (model[index] & (COVERED | FLAG)) == (COVERED | FLAG);
+        if (countedBefore != countedAfter) {
+            addAdjacentFlag(index, countedAfter ? 1 : -1);
+        }
+        if (((before ^ model[index]) & MINED) != 0) {
+            if (value) {
+                addMineIndex(index);
+            } else {
+                removeMineIndex(index);
+            }
+        }
+        markChanged(index);
+    }
+
+    /**
+     * Adds a dot to the list of the mines.
+     *
+     * @param index the row-major index of the mined dot
+     */
+    private void addMineIndex(int index) {
+        if (numberOfMineIndices == mineIndices.length) {
+            mineIndices = Arrays.copyOf(mineIndices, numberOfMineIndices * 2);
+        }
+        mineIndices[numberOfMineIndices++] = index;
+    }
+
+    /**
+     * Removes a dot from the list of the mines. Only used when a caller removes a mine by hand, so a linear search is enough.
+     *
+     * @param index the row-major index of the dot that is no longer mined
+     */
+    private void removeMineIndex(int index) {
+        for (int k = 0; k < numberOfMineIndices; k++) {
+            if (mineIndices[k] == index) {
+                mineIndices[k] = mineIndices[--numberOfMineIndices];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds the given amount to the number of adjacent flags of the (up to) eight neighbours of the dot at the given index.
+     * Dots away from the border of the board take the fast path, without any bound check.
+     *
+     * @param index the row-major index of the dot whose flag changed
+     * @param delta 1 if the flag was put, -1 if it was removed
+     */
+    private void addAdjacentFlag(int index, int delta) {
+        int x = index % widthOfGame;
+        int y = index / widthOfGame;
+        if (x > 0 && y > 0 && x < widthOfGame - 1 && y < heightOfGame - 1) {
+            for (int n = 0; n < neighbourOffsets.length; n++) {
+                adjacentFlags[index + neighbourOffsets[n]] += delta;
+            }
+            return;
+        }
+        for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, heightOfGame - 1); j++) {
+            for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, widthOfGame - 1); i++) {
+                if (i != x || j != y) {
+                    adjacentFlags[j * widthOfGame + i] += delta;
+                }
+            }
+        }
+    }
+
+    /**
+     * Records that the dot at the given index has changed since the changes were last cleared.
+     * Each dot is recorded once. When more than an eighth of the board has changed,
+     * the model stops recording single dots and reports the whole board as changed.
+     *
+     * @param index the row-major index of the dot
+     */
+    void markChanged(int index) {
+        if (allChanged) {
+            return;
+        }
+        long bit = 1L << index;
+        if ((changedBits[index >>> 6] & bit) != 0) {
+            return;
+        }
+        if (numberOfChanges >= model.length >>> 3) {
+            allChanged = true;
+            return;
+        }
+        if (numberOfChanges == changedList.length) {
+            changedList = Arrays.copyOf(changedList, changedList.length * 2);
+        }
+        changedBits[index >>> 6] |= bit;
+        changedList[numberOfChanges++] = index;
+    }
+
+    /**
+     * Returns true if the whole board must be considered as changed since the changes were last cleared,
+     * for instance after a reset.
+     *
+     * @return true if the whole board has changed
+     */
+    public boolean isAllChanged() {
+        return allChanged;
+    }
+
+    /**
+     * Getter method for the number of dots recorded as changed since the changes were last cleared.
+     * It is only meaningful if <b>isAllChanged</b> returns false.
+     *
+     * @return the number of changed dots
+     */
+    public int getNumberOfChanges() {
+        return numberOfChanges;
+    }
+
+    /**
+     * Returns the row-major index (y * width + x) of the k-th dot recorded as changed.
+     *
+     * @param k the position of the change, between 0 and getNumberOfChanges() - 1
+     * @return the index of the changed dot
+     */
+    public int getChange(int k) {
+        return changedList[k];
+    }
+
+    /**
+     * Forgets the changes recorded so far, once they have been taken into account (e.g. by the view).
+     */
+    public void clearChanges() {
+        if (allChanged) {
+            Arrays.fill(changedBits, 0L);
+        } else {
+            for (int k = 0; k < numberOfChanges; k++) {
+                changedBits[changedList[k] >>> 6] = 0L;
+            }
+        }
+        numberOfChanges = 0;
+        allChanged = false;
+    }
+
+    /**
+     * Sets the number of neighbouring mines of the dot at the given index.
+     *
+     * @param index             the row-major index of the dot
+     * @param neighbouringMines the number of neighbouring mines
+     */
+    void setNeighbouringMines(int index, int neighbouringMines) {
+        clearStale();
+        model[index] = (byte) ((model[index] & ~NEIGHBOURS_MASK) | neighbouringMines);
     }
 
     /**
@@ -280,6 +1061,15 @@ public class GameModel {
         numberOfSteps++;
     }
 
+    /**
+     * Getter method for the current number of covered dots.
+     *
+     * @return the number of dots that are still covered
+     */
+    public int getNumberCovered() {
+        return numberUncovered;
+    }
+
     /**
      * The method <b>isFinished</b> returns true iff the game is finished,
      * that is, all the non-mined dots are uncovered.
@@ -291,41 +1081,12 @@ public class GameModel {
     }
 
     /**
-     * Builds a String representation of the model.
+     * Builds a String representation of the model: the covered board, then the uncovered board.
+     * Large boards should rather be streamed with <b>BoardText.write</b>.
      *
      * @return String representation of the model
      */
     public String toString() {
-        StringBuilder stringBuilder = new StringBuilder();
-
-        stringBuilder.append("Covered Board: \n");
-        for (int i = 0; i < heightOfGame; i++) {
-            for (int j = 0; j < widthOfGame; j++) {
-                if (isCovered(j, i)) {
-                    stringBuilder.append("  ");
-                } else {
-                    if (isMined(j, i)) {
-                        stringBuilder.append("B ");
-                    } else {
-                        stringBuilder.append(getNeighbouringMines(j, i)).append(" ");
-                    }
-                }
-            }
-            stringBuilder.append("\n");
-        }
-
-        stringBuilder.append("Uncovered Board: \n");
-        for (int i = 0; i < heightOfGame; i++) {
-            for (int j = 0; j < widthOfGame; j++) {
-                if (isMined(j, i)) {
-                    stringBuilder.append("B ");
-                } else {
-                    stringBuilder.append(getNeighbouringMines(j, i)).append(" ");
-                }
-            }
-            stringBuilder.append("\n");
-        }
-
-        return stringBuilder.toString();
+        return BoardText.toString(this, BoardText.View.BOTH);
     }
 }
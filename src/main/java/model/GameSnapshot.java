@@ -0,0 +1,311 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * The class <b>GameSnapshot</b> saves a game to a binary file, and loads it back.
+ * The file is written and read through a single memory-mapped buffer, straight from and to the board of the model.
+ * <p>
+ * Format, version 1, big-endian:
+ * <pre>
+ * header (48 bytes): magic "MSWP", version (short), options (short, bit 0: mines not placed yet),
+ *                    width, height, mines, seed (long), steps, flags, clicked mines, reserved (2 ints)
+ * states:            2 bits per dot in row-major order, 32 dots per long: bit 0 covered, bit 1 flag
+ * mines:             1 bit per dot in row-major order, 64 dots per long
+ * clicked mines:     the index (int) of each mined dot that has been clicked
+ * </pre>
+ * The numbers of neighbouring mines and of covered dots are not stored, they are computed again when loading.
+ * The clicked state is only kept for the mined dots, the only ones whose display depends on it.
+ * A game ends with the move that clicks a mine, so there are at most MAX_CLICKED_MINES of them.
+ */
+public final class GameSnapshot {
+
+    private static final int MAGIC = 0x4D535750;
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 48;
+    private static final short PLACEMENT_PENDING = 1;
+    private static final int CLICKED_MINES_OFFSET = 36;
+
+    /**
+     * Largest number of clicked mines: a game ends with the move that clicks a mine, and a chord clicks at most eight.
+     */
+    static final int MAX_CLICKED_MINES = 8;
+
+    private GameSnapshot() {
+    }
+
+    /**
+     * Saves the current game of the model to the given file, replacing it if it exists.
+     * The board is written in a single pass through a mapped buffer; the few clicked mines found on the way
+     * are appended after it.
+     *
+     * @param gameModel the model of the game
+     * @param path      the file to write
+     * @throws IOException if the file cannot be written, or the board is too large for a single mapped buffer
+     */
+    public static void save(GameModel gameModel, Path path) throws IOException {
+        int boardSize = getBoardSize(gameModel);
+        int[] clickedMines = new int[MAX_CLICKED_MINES];
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, boardSize);
+            int numberOfClicked = writeBoard(gameModel, buffer, clickedMines);
+            buffer.force();
+            ByteBuffer tail = ByteBuffer.allocate(4 * numberOfClicked);
+            writeClickedMines(tail, clickedMines, numberOfClicked);
+            tail.flip();
+            long position = boardSize;
+            while (tail.hasRemaining()) {
+                position += channel.write(tail, position);
+            }
+        }
+    }
+
+    /**
+     * Loads a game saved by <b>save</b> into a new model.
+     *
+     * @param path the file to read
+     * @return the model of the saved game
+     * @throws IOException if the file cannot be read, or is not a valid save file
+     */
+    public static GameModel load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Not a save file: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            GameModel gameModel = read(buffer, null);
+            if (buffer.hasRemaining()) {
+                throw new IOException("Corrupted save file: " + path);
+            }
+            return gameModel;
+        }
+    }
+
+    /**
+     * Returns the largest number of bytes taken by the current game of the model once saved, without reading the board:
+     * the size of the board part, and room for the largest number of clicked mines.
+     *
+     * @param gameModel the model of the game
+     * @return the largest size of the saved game
+     * @throws IOException if the board is too large to be saved
+     */
+    static int getMaxSize(GameModel gameModel) throws IOException {
+        return getBoardSize(gameModel) + 4 * MAX_CLICKED_MINES;
+    }
+
+    /**
+     * Writes the current game of the model to the buffer, which must have <b>getMaxSize</b> bytes remaining.
+     *
+     * @param gameModel the model of the game
+     * @param buffer    the buffer to write to
+     * @return the number of bytes written
+     * @throws IOException if more mines have been clicked than a game allows
+     */
+    static int write(GameModel gameModel, ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        int[] clickedMines = new int[MAX_CLICKED_MINES];
+        int numberOfClicked = writeBoard(gameModel, buffer, clickedMines);
+        writeClickedMines(buffer, clickedMines, numberOfClicked);
+        return buffer.position() - start;
+    }
+
+    /**
+     * Reads a game written by <b>write</b> from the buffer.
+     *
+     * @param buffer    the buffer to read from
+     * @param gameModel the model into which the game is restored, which must have the same size and number of mines,
+     *                  or null to restore it into a new model
+     * @return the model of the game
+     * @throws IOException if the buffer does not hold a valid game, or one that does not fit the given model
+     */
+    static GameModel read(ByteBuffer buffer, GameModel gameModel) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a saved game");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported save file version: " + version);
+        }
+        boolean placementPending = (buffer.getShort() & PLACEMENT_PENDING) != 0;
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        int numberOfMines = buffer.getInt();
+        long seed = buffer.getLong();
+        int numberOfSteps = buffer.getInt();
+        int numberOfFlags = buffer.getInt();
+        int clickedMines = buffer.getInt();
+        buffer.getInt();
+        buffer.getInt();
+        if (width < 1 || height < 1 || (long) width * height > Integer.MAX_VALUE || numberOfMines < 0 || numberOfMines > width * height
+                || clickedMines < 0 || clickedMines > MAX_CLICKED_MINES
+                || buffer.remaining() < fileSize(width * height, clickedMines) - HEADER_SIZE) {
+            throw new IOException("Corrupted saved game");
+        }
+        if (gameModel == null) {
+            gameModel = new GameModel(width, height, numberOfMines, new Random(), false);
+        } else if (gameModel.getWidth() != width || gameModel.getHeight() != height || gameModel.getNumberOfMines() != numberOfMines) {
+            throw new IOException("The saved game does not fit the board");
+        }
+
+        int size = width * height;
+        gameModel.beginRestore(seed, numberOfSteps, placementPending);
+        int minesFound = readStates(gameModel, buffer, size);
+        for (int k = 0; k < clickedMines; k++) {
+            int index = buffer.getInt();
+            if (index < 0 || index >= size) {
+                throw new IOException("Corrupted saved game");
+            }
+            gameModel.restoreDot(index, gameModel.getState(index) | GameModel.CLICKED);
+        }
+        if (minesFound != (placementPending ? 0 : numberOfMines) || gameModel.getNumberOfFlags() != numberOfFlags) {
+            throw new IOException("Corrupted saved game");
+        }
+        gameModel.endRestore();
+        return gameModel;
+    }
+
+    /**
+     * Returns the size of the board part of a save file: the header, the states and the mines.
+     *
+     * @param gameModel the model of the game
+     * @return the size of the board part
+     * @throws IOException if the board is too large to be saved
+     */
+    private static int getBoardSize(GameModel gameModel) throws IOException {
+        int size = gameModel.getWidth() * gameModel.getHeight();
+        long bytes = fileSize(size, 0);
+        if (bytes > Integer.MAX_VALUE - 4 * MAX_CLICKED_MINES) {
+            throw new IOException("Board too large to be saved: " + size + " dots");
+        }
+        return (int) bytes;
+    }
+
+    /**
+     * Writes the header, the states and the mines, in a single pass over the board,
+     * and collects the indices of the clicked mines on the way. The number of clicked mines of the header
+     * is filled in at the end.
+     *
+     * @param gameModel    the model of the game
+     * @param buffer       the buffer to write to
+     * @param clickedMines the array receiving the indices of the clicked mines
+     * @return the number of clicked mines
+     * @throws IOException if more mines have been clicked than a game allows
+     */
+    private static int writeBoard(GameModel gameModel, ByteBuffer buffer, int[] clickedMines) throws IOException {
+        int size = gameModel.getWidth() * gameModel.getHeight();
+        int start = buffer.position();
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort(gameModel.isPlacementPending() ? PLACEMENT_PENDING : 0);
+        buffer.putInt(gameModel.getWidth());
+        buffer.putInt(gameModel.getHeight());
+        buffer.putInt(gameModel.getNumberOfMines());
+        buffer.putLong(gameModel.getSeed());
+        buffer.putInt(gameModel.getNumberOfSteps());
+        buffer.putInt(gameModel.getNumberOfFlags());
+        buffer.putInt(0);
+        buffer.putInt(0);
+        buffer.putInt(0);
+        writeStates(gameModel, buffer, size);
+        int numberOfClicked = writeMines(gameModel, buffer, size, clickedMines);
+        buffer.putInt(start + CLICKED_MINES_OFFSET, numberOfClicked);
+        return numberOfClicked;
+    }
+
+    private static void writeClickedMines(ByteBuffer buffer, int[] clickedMines, int numberOfClicked) {
+        for (int k = 0; k < numberOfClicked; k++) {
+            buffer.putInt(clickedMines[k]);
+        }
+    }
+
+    /**
+     * Returns the size in bytes of a save file.
+     *
+     * @param size         the number of dots of the board
+     * @param clickedMines the number of mined dots that have been clicked
+     * @return the size of the file
+     */
+    private static long fileSize(int size, int clickedMines) {
+        return HEADER_SIZE + 8L * ((size + 31) >>> 5) + 8L * ((size + 63) >>> 6) + 4L * clickedMines;
+    }
+
+    /**
+     * Writes the covered and flag states of the dots, 32 dots per long.
+     */
+    private static void writeStates(GameModel gameModel, ByteBuffer buffer, int size) {
+        for (int first = 0; first < size; first += 32) {
+            long packed = 0;
+            int last = Math.min(first + 32, size);
+            for (int index = first; index < last; index++) {
+                int state = gameModel.getState(index);
+                long bits = ((state & GameModel.COVERED) != 0 ? 1 : 0) | ((state & GameModel.FLAG) != 0 ? 2 : 0);
+                packed |= bits << ((index - first) << 1);
+            }
+            buffer.putLong(packed);
+        }
+    }
+
+    /**
+     * Writes the bitmap of the mines, 64 dots per long, and collects the clicked mines.
+     *
+     * @return the number of clicked mines
+     */
+    private static int writeMines(GameModel gameModel, ByteBuffer buffer, int size, int[] clickedMines) throws IOException {
+        int numberOfClicked = 0;
+        for (int first = 0; first < size; first += 64) {
+            long packed = 0;
+            int last = Math.min(first + 64, size);
+            for (int index = first; index < last; index++) {
+                int state = gameModel.getState(index);
+                if ((state & GameModel.MINED) != 0) {
+                    packed |= 1L << (index - first);
+                    if ((state & GameModel.CLICKED) != 0) {
+                        if (numberOfClicked == clickedMines.length) {
+                            throw new IOException("Too many clicked mines to be saved");
+                        }
+                        clickedMines[numberOfClicked++] = index;
+                    }
+                }
+            }
+            buffer.putLong(packed);
+        }
+        return numberOfClicked;
+    }
+
+    /**
+     * Reads the states and the bitmap of the mines into the model.
+     *
+     * @return the number of mines read
+     */
+    private static int readStates(GameModel gameModel, ByteBuffer buffer, int size) {
+        int statesPosition = buffer.position();
+        int minesPosition = statesPosition + 8 * ((size + 31) >>> 5);
+        int minesFound = 0;
+        for (int first = 0; first < size; first += 64) {
+            long mines = buffer.getLong(minesPosition + (first >>> 3));
+            long low = buffer.getLong(statesPosition + (first >>> 2));
+            long high = first + 32 < size ? buffer.getLong(statesPosition + (first >>> 2) + 8) : 0;
+            int last = Math.min(first + 64, size);
+            for (int index = first; index < last; index++) {
+                int offset = index - first;
+                long states = offset < 32 ? low >>> (offset << 1) : high >>> ((offset - 32) << 1);
+                int state = ((states & 1) != 0 ? GameModel.COVERED : 0) | ((states & 2) != 0 ? GameModel.FLAG : 0);
+                if ((mines >>> offset & 1) != 0) {
+                    state |= GameModel.MINED;
+                    minesFound++;
+                }
+                gameModel.restoreDot(index, state);
+            }
+        }
+        buffer.position(minesPosition + 8 * ((size + 63) >>> 6));
+        return minesFound;
+    }
+}
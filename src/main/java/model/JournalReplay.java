@@ -0,0 +1,199 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The class <b>JournalReplay</b> replays a game recorded by a MoveJournal on its own GameEngine.
+ * The journal is mapped in memory and scanned once to find its checkpoints.
+ * <b>seek</b> then brings the board to the state after any move: it restores the nearest checkpoint before that move,
+ * unless the current position is already closer, and plays the remaining moves from there.
+ * A seek therefore never plays more moves than the checkpoint interval of the journal.
+ */
+public class JournalReplay {
+
+    private final ByteBuffer journal;
+    private final long seed;
+    private final GameEngine gameEngine;
+    private int[] checkpointMoves = new int[16];
+    private int[] checkpointPositions = new int[16];
+    private int numberOfCheckpoints;
+    private int numberOfMoves;
+    private int currentMove;
+
+    /**
+     * Constructor used for opening a journal and restoring the board at the start of its game.
+     *
+     * @param path the file of the journal
+     * @throws IOException if the file cannot be read, or is not a valid journal
+     */
+    public JournalReplay(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < MoveJournal.HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a journal: " + path);
+            }
+            journal = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (journal.getInt() != MoveJournal.MAGIC) {
+            throw new IOException("Not a journal: " + path);
+        }
+        short version = journal.getShort();
+        if (version != MoveJournal.VERSION) {
+            throw new IOException("Unsupported journal version: " + version);
+        }
+        boolean safeNeighbourhood = (journal.getShort() & MoveJournal.SAFE_NEIGHBOURHOOD) != 0;
+        journal.getInt();
+        seed = journal.getLong();
+        try {
+            scan();
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted journal: " + path, e);
+        }
+        if (numberOfCheckpoints == 0 || checkpointMoves[0] != 0) {
+            throw new IOException("Corrupted journal: " + path);
+        }
+
+        journal.position(checkpointPositions[0]);
+        boolean over = (MoveJournal.getVarint(journal) >>> 2) != 0;
+        MoveJournal.getVarint(journal);
+        GameModel gameModel = GameSnapshot.read(journal, null);
+        gameModel.setSafeNeighbourhood(safeNeighbourhood);
+        gameEngine = new GameEngine(gameModel);
+        gameEngine.restored(over);
+    }
+
+    /**
+     * Scans the records of the journal, counting the moves and finding the checkpoints,
+     * then leaves the journal positioned on the first record.
+     */
+    private void scan() {
+        int first = journal.position();
+        while (journal.hasRemaining()) {
+            int position = journal.position();
+            int tag = MoveJournal.getVarint(journal);
+            if ((tag & 3) != MoveJournal.CHECKPOINT) {
+                numberOfMoves++;
+                continue;
+            }
+            int length = MoveJournal.getVarint(journal);
+            journal.position(journal.position() + length);
+            if (numberOfCheckpoints == checkpointMoves.length) {
+                checkpointMoves = Arrays.copyOf(checkpointMoves, numberOfCheckpoints * 2);
+                checkpointPositions = Arrays.copyOf(checkpointPositions, numberOfCheckpoints * 2);
+            }
+            checkpointMoves[numberOfCheckpoints] = numberOfMoves;
+            checkpointPositions[numberOfCheckpoints++] = position;
+        }
+        journal.position(first);
+    }
+
+    /**
+     * Getter method for the engine on which the game is replayed.
+     *
+     * @return the engine of the replay
+     */
+    public GameEngine getEngine() {
+        return gameEngine;
+    }
+
+    /**
+     * Getter method for the seed of the recorded game.
+     *
+     * @return the seed of the game
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Getter method for the number of moves recorded in the journal.
+     *
+     * @return the number of moves
+     */
+    public int getNumberOfMoves() {
+        return numberOfMoves;
+    }
+
+    /**
+     * Getter method for the number of moves played on the board so far.
+     *
+     * @return the current move
+     */
+    public int getCurrentMove() {
+        return currentMove;
+    }
+
+    /**
+     * Brings the board to its state after the given number of moves.
+     *
+     * @param move the number of moves, between 0 and getNumberOfMoves()
+     * @throws IOException if the journal is corrupted
+     */
+    public void seek(int move) throws IOException {
+        if (move < 0 || move > numberOfMoves) {
+            throw new IllegalArgumentException("Invalid move: " + move);
+        }
+        int checkpoint = Arrays.binarySearch(checkpointMoves, 0, numberOfCheckpoints, move);
+        if (checkpoint < 0) {
+            checkpoint = -checkpoint - 2;
+        }
+        if (move < currentMove || checkpointMoves[checkpoint] > currentMove) {
+            restore(checkpoint);
+        }
+        while (currentMove < move) {
+            step();
+        }
+    }
+
+    /**
+     * Plays the next recorded move on the board.
+     *
+     * @return false if all the moves have already been played, true otherwise
+     * @throws IOException if the journal is corrupted
+     */
+    public boolean step() throws IOException {
+        while (journal.hasRemaining()) {
+            int tag = MoveJournal.getVarint(journal);
+            int type = tag & 3;
+            if (type == MoveJournal.CHECKPOINT) {
+                int length = MoveJournal.getVarint(journal);
+                journal.position(journal.position() + length);
+                continue;
+            }
+            int index = tag >>> 2;
+            int width = gameEngine.getModel().getWidth();
+            if (index >= width * gameEngine.getModel().getHeight()) {
+                throw new IOException("Corrupted journal: invalid dot " + index);
+            }
+            if (type == MoveJournal.REVEAL) {
+                gameEngine.reveal(index % width, index / width);
+            } else if (type == MoveJournal.FLAG) {
+                gameEngine.toggleFlag(index % width, index / width);
+            } else {
+                gameEngine.chord(index % width, index / width);
+            }
+            currentMove++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Restores the board of a checkpoint, and positions the journal on the record that follows it.
+     *
+     * @param checkpoint the number of the checkpoint
+     * @throws IOException if the journal is corrupted
+     */
+    private void restore(int checkpoint) throws IOException {
+        journal.position(checkpointPositions[checkpoint]);
+        boolean over = (MoveJournal.getVarint(journal) >>> 2) != 0;
+        MoveJournal.getVarint(journal);
+        GameSnapshot.read(journal, gameEngine.getModel());
+        gameEngine.restored(over);
+        currentMove = checkpointMoves[checkpoint];
+    }
+}
@@ -0,0 +1,189 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The class <b>MoveJournal</b> records the moves of a game in an append-only file, so that the game can be audited and replayed.
+ * It is attached to a GameEngine with <b>setJournal</b> right after a reset, and records every move that changes the game.
+ * <p>
+ * Format, version 1: a header (magic "MSWJ", version (short), options (short, bit 0: safe neighbourhood),
+ * checkpoint interval (int), seed (long)), followed by records. Each record starts with a varint tag:
+ * the move type in the low two bits and the row-major index of the dot played above them.
+ * A checkpoint record (type CHECKPOINT) holds the end of game bit above the type, the length of the board
+ * as a varint padded to five bytes, then the board saved in the format of GameSnapshot. A checkpoint of the starting board is written first,
+ * then one after every <b>checkpointInterval</b> moves, so that a replay never has to go back further than that.
+ * <p>
+ * The records are gathered in a buffer and written to the file channel when it is full, or when the journal is flushed or closed.
+ */
+public class MoveJournal implements Closeable {
+
+    /**
+     * Types of the records.
+     */
+    public static final int REVEAL = 0;
+    public static final int FLAG = 1;
+    public static final int CHORD = 2;
+    static final int CHECKPOINT = 3;
+
+    static final int MAGIC = 0x4D53574A;
+    static final short VERSION = 1;
+    static final short SAFE_NEIGHBOURHOOD = 1;
+    static final int HEADER_SIZE = 20;
+
+    private final GameModel gameModel;
+    private final FileChannel channel;
+    private final int checkpointInterval;
+    private ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+    private int movesSinceCheckpoint;
+
+    /**
+     * Constructor used for creating the journal of the game that has just been reset on the given model.
+     * The file is replaced if it exists.
+     *
+     * @param path               the file of the journal
+     * @param gameModel          the model of the game
+     * @param safeNeighbourhood  true if the game keeps the neighbours of the first dot revealed free of mines
+     * @param checkpointInterval the number of moves between two checkpoints
+     * @throws IOException if the file cannot be written
+     */
+    public MoveJournal(Path path, GameModel gameModel, boolean safeNeighbourhood, int checkpointInterval) throws IOException {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Invalid checkpoint interval: " + checkpointInterval);
+        }
+        this.gameModel = gameModel;
+        this.checkpointInterval = checkpointInterval;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort(safeNeighbourhood ? SAFE_NEIGHBOURHOOD : 0);
+        buffer.putInt(checkpointInterval);
+        buffer.putLong(gameModel.getSeed());
+        checkpoint(false);
+    }
+
+    /**
+     * Records a move, and a checkpoint of the board after it if the interval since the last checkpoint has been reached.
+     *
+     * @param type  the type of the move: REVEAL, FLAG or CHORD
+     * @param index the row-major index of the dot played
+     * @param over  true if the move ended the game
+     * @throws IOException if the file cannot be written
+     */
+    public void record(int type, int index, boolean over) throws IOException {
+        ensureRemaining(5);
+        putVarint(buffer, index << 2 | type);
+        if (++movesSinceCheckpoint == checkpointInterval) {
+            checkpoint(over);
+        }
+    }
+
+    /**
+     * Records a checkpoint of the current board.
+     *
+     * @param over true if the game is over
+     * @throws IOException if the file cannot be written
+     */
+    private void checkpoint(boolean over) throws IOException {
+        ensureRemaining(10 + GameSnapshot.getMaxSize(gameModel));
+        putVarint(buffer, (over ? 1 : 0) << 2 | CHECKPOINT);
+        int lengthPosition = buffer.position();
+        buffer.position(lengthPosition + 5);
+        int size = GameSnapshot.write(gameModel, buffer);
+        putPaddedVarint(buffer, lengthPosition, size);
+        movesSinceCheckpoint = 0;
+    }
+
+    /**
+     * Writes the buffered records to the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes the buffered records and closes the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Makes room for the given number of bytes in the buffer, flushing it first, and growing it if it is too small.
+     *
+     * @param bytes the number of bytes about to be written
+     * @throws IOException if the file cannot be written
+     */
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        flush();
+        if (buffer.capacity() < bytes) {
+            buffer = ByteBuffer.allocate(bytes);
+        }
+    }
+
+    /**
+     * Writes an unsigned variable-length integer: seven bits per byte, the high bit set on all the bytes but the last.
+     *
+     * @param buffer the buffer to write to
+     * @param value  the value, read as unsigned
+     */
+    static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Writes an unsigned variable-length integer padded to five bytes at the given position, so that a length can be
+     * filled in once the data it precedes has been written. It is read by <b>getVarint</b> like any other.
+     *
+     * @param buffer   the buffer to write to
+     * @param position the position of the first byte
+     * @param value    the value, read as unsigned
+     */
+    static void putPaddedVarint(ByteBuffer buffer, int position, int value) {
+        for (int k = 0; k < 4; k++) {
+            buffer.put(position + k, (byte) (value >>> (7 * k) & 0x7F | 0x80));
+        }
+        buffer.put(position + 4, (byte) (value >>> 28));
+    }
+
+    /**
+     * Reads an unsigned variable-length integer written by <b>putVarint</b> or <b>putPaddedVarint</b>.
+     *
+     * @param buffer the buffer to read from
+     * @return the value
+     */
+    static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
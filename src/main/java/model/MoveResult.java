@@ -0,0 +1,75 @@
+package model;
+
+/**
+ * The class <b>MoveResult</b> describes the effect of a move played through a GameEngine:
+ * its outcome, and the dots it uncovered as horizontal spans.
+ * The engine reuses the same instance for every move, so it must be read before the next move is played.
+ */
+public class MoveResult {
+
+    /**
+     * The possible outcomes of a move.
+     * IGNORED means the move did not change anything (e.g. revealing a flagged or uncovered dot, or playing after the end).
+     */
+    public enum Outcome {
+        IGNORED, SAFE, MINE, WON
+    }
+
+    private Outcome outcome = Outcome.IGNORED;
+    private int numberOpened;
+    private final SpanList spans = new SpanList();
+
+    /**
+     * Clears the result before a new move.
+     */
+    void clear() {
+        outcome = Outcome.IGNORED;
+        numberOpened = 0;
+        spans.clear();
+    }
+
+    /**
+     * Records that the move uncovered some dots, which have already been added to the spans.
+     *
+     * @param numberOpened the number of dots uncovered
+     */
+    void addOpened(int numberOpened) {
+        this.numberOpened += numberOpened;
+    }
+
+    /**
+     * Setter method for the outcome of the move.
+     *
+     * @param outcome the outcome of the move
+     */
+    void setOutcome(Outcome outcome) {
+        this.outcome = outcome;
+    }
+
+    /**
+     * Getter method for the outcome of the move.
+     *
+     * @return the outcome of the move
+     */
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Getter method for the number of dots uncovered by the move.
+     *
+     * @return the number of dots uncovered
+     */
+    public int getNumberOpened() {
+        return numberOpened;
+    }
+
+    /**
+     * Returns the dots uncovered by the move, as horizontal spans.
+     *
+     * @return the spans of uncovered dots
+     */
+    public SpanList getSpans() {
+        return spans;
+    }
+}
@@ -0,0 +1,245 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The class <b>NoGuessGenerator</b> finds boards that can be solved by logic alone, without ever guessing.
+ * Every game starts by revealing the start dot, in the middle of the board, which is kept free of mines with its neighbours.
+ * A candidate board is a seed: it is accepted if the Solver, starting from the start dot,
+ * can uncover every safe dot while only revealing dots it has proven safe. Rejected candidates are simply replaced by new seeds.
+ * <p>
+ * The candidates are checked in parallel, one search per thread, and the first accepted seed cancels the other searches.
+ * Each search draws its candidates from the random generator of its own thread,
+ * so the searches share nothing but the count of attempts.
+ * Accepted seeds are kept in a pool per board configuration, refilled in the background, so that a new game usually starts at once.
+ */
+public class NoGuessGenerator {
+
+    /**
+     * Number of candidates checked before giving up on a configuration.
+     */
+    private static final int MAX_ATTEMPTS = 200000;
+
+    private final int threads;
+    private final int poolSize;
+    private final ExecutorService searchThreads;
+    private final ExecutorService refillThread;
+    private final Map<String, ConcurrentLinkedQueue<Long>> pools = new ConcurrentHashMap<>();
+    private final Map<String, Future<?>> refills = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor used for initializing a generator.
+     *
+     * @param threads  the number of threads checking candidates in parallel
+     * @param poolSize the number of boards kept ready for each configuration
+     */
+    public NoGuessGenerator(int threads, int poolSize) {
+        this.threads = threads;
+        this.poolSize = poolSize;
+        searchThreads = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "no-guess-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refillThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "no-guess-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the x coordinate of the start dot of a board.
+     *
+     * @param width the width of the board
+     * @return the x coordinate of the dot revealed first
+     */
+    public static int getStartX(int width) {
+        return width / 2;
+    }
+
+    /**
+     * Returns the y coordinate of the start dot of a board.
+     *
+     * @param height the height of the board
+     * @return the y coordinate of the dot revealed first
+     */
+    public static int getStartY(int height) {
+        return height / 2;
+    }
+
+    /**
+     * Returns a seed giving a board that can be solved without guessing, to be passed to
+     * <b>GameEngine.reset(seed, getStartX(width), getStartY(height))</b>.
+     * The seed is taken from the pool if one is ready, and the pool is then refilled in the background.
+     * If the pool is empty because its last refill failed, that failure is thrown instead of searching again.
+     *
+     * @param width         the width of the board
+     * @param height        the height of the board
+     * @param numberOfMines the number of mines hidden in the board
+     * @return the seed of the board
+     * @throws IllegalStateException if no board can be solved without guessing in this configuration
+     */
+    public long next(int width, int height, int numberOfMines) {
+        Long seed = getPool(width, height, numberOfMines).poll();
+        if (seed == null) {
+            checkRefill(width, height, numberOfMines);
+            seed = generate(width, height, numberOfMines);
+        }
+        prefill(width, height, numberOfMines);
+        return seed;
+    }
+
+    /**
+     * Fills the pool of a configuration in the background, up to the size given to the constructor.
+     * The refill fails with the IllegalStateException of <b>generate</b> if no board can be solved without guessing
+     * in this configuration; the failure is kept in the returned future, and thrown by the next call to <b>next</b>
+     * that finds the pool empty.
+     *
+     * @param width         the width of the board
+     * @param height        the height of the board
+     * @param numberOfMines the number of mines hidden in the board
+     * @return the future of the refill
+     */
+    public Future<?> prefill(int width, int height, int numberOfMines) {
+        ConcurrentLinkedQueue<Long> pool = getPool(width, height, numberOfMines);
+        Future<?> refill = refillThread.submit(() -> {
+            while (pool.size() < poolSize) {
+                pool.add(generate(width, height, numberOfMines));
+            }
+        });
+        refills.put(getKey(width, height, numberOfMines), refill);
+        return refill;
+    }
+
+    /**
+     * Throws the failure of the last refill of a configuration, if it has failed.
+     *
+     * @param width         the width of the board
+     * @param height        the height of the board
+     * @param numberOfMines the number of mines hidden in the board
+     * @throws IllegalStateException if the last refill failed
+     */
+    private void checkRefill(int width, int height, int numberOfMines) {
+        Future<?> refill = refills.get(getKey(width, height, numberOfMines));
+        if (refill == null || !refill.isDone() || refill.isCancelled()) {
+            return;
+        }
+        try {
+            refill.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating a board", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Searches for a board that can be solved without guessing, checking candidates on all the search threads.
+     *
+     * @param width         the width of the board
+     * @param height        the height of the board
+     * @param numberOfMines the number of mines hidden in the board
+     * @return the seed of the board
+     * @throws IllegalStateException if no board was accepted after the maximum number of attempts
+     */
+    public long generate(int width, int height, int numberOfMines) {
+        AtomicInteger attempts = new AtomicInteger();
+        List<Callable<Long>> searches = new ArrayList<>(threads);
+        for (int k = 0; k < threads; k++) {
+            searches.add(() -> search(width, height, numberOfMines, attempts));
+        }
+        try {
+            return searchThreads.invokeAny(searches);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating a board", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("No board of " + width + "x" + height + " with " + numberOfMines
+                    + " mines can be solved without guessing after " + MAX_ATTEMPTS + " attempts");
+        }
+    }
+
+    /**
+     * Checks candidates until one is accepted, the search is cancelled or the attempts shared by all the searches run out.
+     *
+     * @param width         the width of the board
+     * @param height        the height of the board
+     * @param numberOfMines the number of mines hidden in the board
+     * @param attempts      the number of candidates checked so far by all the searches
+     * @return the seed of the accepted board
+     * @throws InterruptedException  if the search is cancelled because another search found a board
+     * @throws IllegalStateException if the attempts ran out
+     */
+    private long search(int width, int height, int numberOfMines, AtomicInteger attempts) throws InterruptedException {
+        GameEngine gameEngine = new GameEngine(new GameModel(width, height, numberOfMines, new Random(), false));
+        ThreadLocalRandom seedGenerator = ThreadLocalRandom.current();
+        while (attempts.incrementAndGet() <= MAX_ATTEMPTS) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            long seed = seedGenerator.nextLong();
+            if (isSolvable(gameEngine, seed)) {
+                return seed;
+            }
+        }
+        throw new IllegalStateException("Too many attempts");
+    }
+
+    /**
+     * Plays the board of the given seed from its start dot, only revealing the dots the solver has proven safe.
+     *
+     * @param gameEngine the engine on which the board is played, reset by this method
+     * @param seed       the seed of the board
+     * @return true if the board was won without guessing
+     */
+    public static boolean isSolvable(GameEngine gameEngine, long seed) {
+        GameModel gameModel = gameEngine.getModel();
+        int width = gameModel.getWidth();
+        int startX = getStartX(width);
+        int startY = getStartY(gameModel.getHeight());
+        gameEngine.reset(seed, startX, startY);
+        Solver solver = gameEngine.getSolver();
+        MoveResult result = gameEngine.reveal(startX, startY);
+        while (!gameEngine.isOver()) {
+            solver.solve();
+            int[] safeMoves = solver.nextSafeMoves();
+            if (safeMoves.length == 0) {
+                return false;
+            }
+            for (int k = 0; k < safeMoves.length && !gameEngine.isOver(); k++) {
+                result = gameEngine.reveal(safeMoves[k] % width, safeMoves[k] / width);
+            }
+        }
+        return result.getOutcome() == MoveResult.Outcome.WON;
+    }
+
+    /**
+     * Stops the threads of the generator.
+     */
+    public void shutdown() {
+        searchThreads.shutdownNow();
+        refillThread.shutdownNow();
+    }
+
+    private ConcurrentLinkedQueue<Long> getPool(int width, int height, int numberOfMines) {
+        return pools.computeIfAbsent(getKey(width, height, numberOfMines), key -> new ConcurrentLinkedQueue<>());
+    }
+
+    private static String getKey(int width, int height, int numberOfMines) {
+        return width + "x" + height + "x" + numberOfMines;
+    }
+}
@@ -0,0 +1,757 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The class <b>Solver</b> deduces which covered dots are safe or mined, using only what a player can see:
+ * the covered dots, the numbers of the uncovered dots and the total number of mines. The flags are ignored.
+ * <p>
+ * Each uncovered number next to covered dots is a constraint: its covered, undecided neighbours hold a known number of mines.
+ * <b>solve</b> first applies the single-constraint rules (no mine left, or as many mines as dots left),
+ * then the subset rule between overlapping constraints, until nothing new is found.
+ * If no safe dot is found, the remaining constraints are split into independent components,
+ * each component is solved exactly by enumerating its solutions, and the components are combined
+ * with the dots outside the frontier to give the probability of each dot being mined.
+ * <p>
+ * The solver keeps its own frontier of uncovered numbers, fed with the spans uncovered by each move through <b>observe</b>,
+ * so its work scales with the size of the frontier rather than the size of the board.
+ */
+public class Solver {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte SAFE = 1;
+    private static final byte MINE = 2;
+    private static final byte DECISION_MASK = 3;
+    private static final byte FRONTIER = 4;
+    private static final byte IN_COMPONENT = 8;
+
+    /**
+     * Components with more dots than this are not enumerated, their probabilities are only estimated.
+     */
+    private static final int MAX_COMPONENT_SIZE = 32;
+
+    private final GameModel gameModel;
+    private final int width;
+    private final int height;
+    private final byte[] knowledge;
+    private int[] frontier = new int[64];
+    private int frontierSize;
+    private int[] safeDots = new int[64];
+    private int numberOfSafeDots;
+    private int[] mineDots = new int[64];
+    private int numberOfMineDots;
+
+    private int[] componentDots = new int[64];
+    private double[] componentProbabilities = new double[64];
+    private int numberOfComponentDots;
+    private double otherProbability;
+
+    private int[][] constraintDots;
+    private int[] constraintSizes;
+    private int[] constraintMines;
+    private int[] constraintCentres;
+    private int numberOfConstraints;
+
+    /**
+     * Constructor used for initializing a solver of the given model, at the start of a game.
+     *
+     * @param gameModel the model of the game
+     */
+    public Solver(GameModel gameModel) {
+        this.gameModel = gameModel;
+        width = gameModel.getWidth();
+        height = gameModel.getHeight();
+        knowledge = new byte[width * height];
+        reset();
+    }
+
+    /**
+     * Forgets everything about the previous game. Must be called when the model is reset.
+     */
+    public void reset() {
+        Arrays.fill(knowledge, UNKNOWN);
+        frontierSize = 0;
+        numberOfSafeDots = 0;
+        numberOfMineDots = 0;
+        numberOfComponentDots = 0;
+        otherProbability = 0;
+    }
+
+    /**
+     * Rebuilds the frontier by scanning the whole board, for a model whose moves have not been observed.
+     */
+    public void rebuild() {
+        reset();
+        for (int index = 0; index < knowledge.length; index++) {
+            addToFrontier(index);
+        }
+    }
+
+    /**
+     * Adds the numbers uncovered by a move to the frontier.
+     *
+     * @param spans the spans of dots uncovered by the move
+     */
+    public void observe(SpanList spans) {
+        for (int k = 0; k < spans.size(); k++) {
+            int offset = spans.getRow(k) * width;
+            for (int x = spans.getStartX(k); x <= spans.getEndX(k); x++) {
+                addToFrontier(offset + x);
+            }
+        }
+    }
+
+    /**
+     * Adds the dot at the given index to the frontier if it is an uncovered number.
+     *
+     * @param index the row-major index of the dot
+     */
+    private void addToFrontier(int index) {
+        int x = index % width;
+        int y = index / width;
+        if ((knowledge[index] & FRONTIER) != 0 || gameModel.isCovered(x, y) || gameModel.isMined(x, y) || gameModel.isBlank(x, y)) {
+            return;
+        }
+        knowledge[index] |= FRONTIER;
+        if (frontierSize == frontier.length) {
+            frontier = Arrays.copyOf(frontier, frontierSize * 2);
+        }
+        frontier[frontierSize++] = index;
+    }
+
+    /**
+     * Runs the deduction on the current state of the board.
+     * Afterwards, <b>nextSafeMoves</b> and <b>certainMines</b> describe the board.
+     * The probabilities of <b>getMineProbability</b> are only computed when the rules found no safe dot,
+     * otherwise every undecided dot is reported with the density of the mines left.
+     */
+    public void solve() {
+        boolean progress = true;
+        while (progress) {
+            progress = applySingleRules() || applySubsetRules();
+        }
+        clearComponents();
+        if (nextSafeMoves().length == 0) {
+            enumerate();
+        } else {
+            int undecided = gameModel.getNumberCovered() - numberOfMineDots;
+            otherProbability = undecided > 0 ? (double) (gameModel.getNumberOfMines() - numberOfMineDots) / undecided : 0;
+        }
+    }
+
+    /**
+     * Forgets the components and probabilities computed by the previous enumeration.
+     */
+    private void clearComponents() {
+        for (int k = 0; k < numberOfComponentDots; k++) {
+            knowledge[componentDots[k]] &= ~IN_COMPONENT;
+        }
+        numberOfComponentDots = 0;
+    }
+
+    /**
+     * Returns the covered dots known to be safe, as row-major indices (y * width + x).
+     *
+     * @return the safe dots that can be revealed
+     */
+    public int[] nextSafeMoves() {
+        int[] moves = new int[numberOfSafeDots];
+        int count = 0;
+        for (int k = 0; k < numberOfSafeDots; k++) {
+            int index = safeDots[k];
+            if (gameModel.isCovered(index % width, index / width)) {
+                moves[count++] = index;
+            }
+        }
+        return Arrays.copyOf(moves, count);
+    }
+
+    /**
+     * Returns the dots known to be mined, as row-major indices (y * width + x).
+     *
+     * @return the mined dots
+     */
+    public int[] certainMines() {
+        return Arrays.copyOf(mineDots, numberOfMineDots);
+    }
+
+    /**
+     * Returns the probability that the dot at location (x,y) is mined, as computed by the last call to <b>solve</b>.
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     * @return the probability of a mine, between 0 and 1
+     */
+    public double getMineProbability(int x, int y) {
+        int index = y * width + x;
+        if ((knowledge[index] & DECISION_MASK) == MINE) {
+            return 1;
+        }
+        if ((knowledge[index] & DECISION_MASK) == SAFE || !gameModel.isCovered(x, y)) {
+            return 0;
+        }
+        if ((knowledge[index] & IN_COMPONENT) != 0) {
+            for (int k = 0; k < numberOfComponentDots; k++) {
+                if (componentDots[k] == index) {
+                    return componentProbabilities[k];
+                }
+            }
+        }
+        return otherProbability;
+    }
+
+    /**
+     * Returns the covered, undecided dot with the lowest probability of being mined, to be used when no dot is safe.
+     * Dots of the frontier are preferred; otherwise the first dot outside the frontier is returned.
+     *
+     * @return the row-major index of the dot, or -1 if every covered dot is decided
+     */
+    public int bestGuess() {
+        int best = -1;
+        double bestProbability = 2;
+        for (int k = 0; k < numberOfComponentDots; k++) {
+            int index = componentDots[k];
+            if ((knowledge[index] & DECISION_MASK) == UNKNOWN && componentProbabilities[k] < bestProbability) {
+                best = index;
+                bestProbability = componentProbabilities[k];
+            }
+        }
+        if (best >= 0 && bestProbability <= otherProbability) {
+            return best;
+        }
+        for (int index = 0; index < knowledge.length; index++) {
+            if (knowledge[index] == UNKNOWN && gameModel.isCovered(index % width, index / width)) {
+                return index;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Decides the dot at the given index, if it is not decided yet.
+     *
+     * @param index    the row-major index of the dot
+     * @param decision SAFE or MINE
+     * @return true if the dot was undecided
+     */
+    private boolean decide(int index, byte decision) {
+        if ((knowledge[index] & DECISION_MASK) != UNKNOWN) {
+            return false;
+        }
+        knowledge[index] |= decision;
+        if (decision == SAFE) {
+            if (numberOfSafeDots == safeDots.length) {
+                safeDots = Arrays.copyOf(safeDots, numberOfSafeDots * 2);
+            }
+            safeDots[numberOfSafeDots++] = index;
+        } else {
+            if (numberOfMineDots == mineDots.length) {
+                mineDots = Arrays.copyOf(mineDots, numberOfMineDots * 2);
+            }
+            mineDots[numberOfMineDots++] = index;
+        }
+        return true;
+    }
+
+    /**
+     * Builds the constraints of the frontier: the undecided covered neighbours of each number, and how many of them are mined.
+     * Numbers without undecided neighbours are removed from the frontier for good.
+     */
+    private void buildConstraints() {
+        if (constraintDots == null || constraintDots.length < frontierSize) {
+            constraintDots = new int[Math.max(frontierSize, 16)][8];
+            constraintSizes = new int[constraintDots.length];
+            constraintMines = new int[constraintDots.length];
+            constraintCentres = new int[constraintDots.length];
+        }
+        Arrays.sort(frontier, 0, frontierSize);
+        numberOfConstraints = 0;
+        int kept = 0;
+        for (int f = 0; f < frontierSize; f++) {
+            int index = frontier[f];
+            int x = index % width;
+            int y = index / width;
+            int[] dots = constraintDots[numberOfConstraints];
+            int size = 0;
+            int mines = gameModel.getNeighbouringMines(x, y);
+            for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, height - 1); j++) {
+                for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, width - 1); i++) {
+                    int neighbour = j * width + i;
+                    if (neighbour == index || !gameModel.isCovered(i, j)) {
+                        continue;
+                    }
+                    int decision = knowledge[neighbour] & DECISION_MASK;
+                    if (decision == MINE) {
+                        mines--;
+                    } else if (decision == UNKNOWN) {
+                        dots[size++] = neighbour;
+                    }
+                }
+            }
+            if (size == 0) {
+                knowledge[index] &= ~FRONTIER;
+                continue;
+            }
+            frontier[kept++] = index;
+            constraintSizes[numberOfConstraints] = size;
+            constraintMines[numberOfConstraints] = mines;
+            constraintCentres[numberOfConstraints] = index;
+            numberOfConstraints++;
+        }
+        frontierSize = kept;
+    }
+
+    /**
+     * Applies the single-constraint rules: if a number has no mine left around it, its undecided neighbours are safe,
+     * and if it has as many mines left as undecided neighbours, they are all mined.
+     *
+     * @return true if a dot was decided
+     */
+    private boolean applySingleRules() {
+        buildConstraints();
+        boolean progress = false;
+        for (int c = 0; c < numberOfConstraints; c++) {
+            int size = constraintSizes[c];
+            int mines = constraintMines[c];
+            if (mines == 0 || mines == size) {
+                byte decision = mines == 0 ? SAFE : MINE;
+                for (int k = 0; k < size; k++) {
+                    progress |= decide(constraintDots[c][k], decision);
+                }
+            }
+        }
+        return progress;
+    }
+
+    /**
+     * Applies the subset rule: if the undecided neighbours of a number A are all neighbours of a number B,
+     * then the other neighbours of B hold the difference of their mines, which may decide them.
+     * Only numbers at most two dots apart can share neighbours, so each constraint is compared with 24 others at most.
+     *
+     * @return true if a dot was decided
+     */
+    private boolean applySubsetRules() {
+        buildConstraints();
+        boolean progress = false;
+        int[] difference = new int[8];
+        for (int a = 0; a < numberOfConstraints; a++) {
+            int centre = constraintCentres[a];
+            int x = centre % width;
+            int y = centre / width;
+            for (int j = Math.max(y - 2, 0); j <= Math.min(y + 2, height - 1); j++) {
+                for (int i = Math.max(x - 2, 0); i <= Math.min(x + 2, width - 1); i++) {
+                    int b = Arrays.binarySearch(constraintCentres, 0, numberOfConstraints, j * width + i);
+                    if (b < 0 || b == a || constraintSizes[a] >= constraintSizes[b]) {
+                        continue;
+                    }
+                    int size = subtract(constraintDots[b], constraintSizes[b], constraintDots[a], constraintSizes[a], difference);
+                    if (size < 0) {
+                        continue;
+                    }
+                    int mines = constraintMines[b] - constraintMines[a];
+                    if (mines == 0 || mines == size) {
+                        byte decision = mines == 0 ? SAFE : MINE;
+                        for (int k = 0; k < size; k++) {
+                            progress |= decide(difference[k], decision);
+                        }
+                    }
+                }
+            }
+        }
+        return progress;
+    }
+
+    /**
+     * Computes the difference of two sorted sets of dots, if the second one is a subset of the first one.
+     *
+     * @param dots        the sorted dots of the larger set
+     * @param size        the number of dots of the larger set
+     * @param subset      the sorted dots of the smaller set
+     * @param subsetSize  the number of dots of the smaller set
+     * @param difference  the array receiving the dots of the larger set that are not in the smaller one
+     * @return the number of dots in the difference, or -1 if the smaller set is not a subset of the larger one
+     */
+    private static int subtract(int[] dots, int size, int[] subset, int subsetSize, int[] difference) {
+        int count = 0;
+        int s = 0;
+        for (int k = 0; k < size; k++) {
+            if (s < subsetSize && subset[s] == dots[k]) {
+                s++;
+            } else if (s < subsetSize && subset[s] < dots[k]) {
+                return -1;
+            } else {
+                difference[count++] = dots[k];
+            }
+        }
+        return s == subsetSize ? count : -1;
+    }
+
+    /**
+     * Splits the remaining constraints into independent components, enumerates the solutions of each component,
+     * and combines them with the number of mines left to compute the probability of each undecided dot.
+     * Dots that are mined in no solution, or in all of them, are decided.
+     */
+    private void enumerate() {
+        buildConstraints();
+
+        // Collect the distinct undecided dots of the frontier
+        int[] dots = new int[numberOfConstraints * 8];
+        int numberOfDots = 0;
+        for (int c = 0; c < numberOfConstraints; c++) {
+            for (int k = 0; k < constraintSizes[c]; k++) {
+                dots[numberOfDots++] = constraintDots[c][k];
+            }
+        }
+        Arrays.sort(dots, 0, numberOfDots);
+        int distinct = 0;
+        for (int k = 0; k < numberOfDots; k++) {
+            if (distinct == 0 || dots[distinct - 1] != dots[k]) {
+                dots[distinct++] = dots[k];
+            }
+        }
+        numberOfDots = distinct;
+        if (componentDots.length < numberOfDots) {
+            componentDots = new int[numberOfDots];
+            componentProbabilities = new double[numberOfDots];
+        }
+
+        // Union the dots of each constraint
+        int[] parent = new int[numberOfDots];
+        for (int k = 0; k < numberOfDots; k++) {
+            parent[k] = k;
+        }
+        int[][] local = new int[numberOfConstraints][];
+        for (int c = 0; c < numberOfConstraints; c++) {
+            local[c] = new int[constraintSizes[c]];
+            for (int k = 0; k < constraintSizes[c]; k++) {
+                local[c][k] = Arrays.binarySearch(dots, 0, numberOfDots, constraintDots[c][k]);
+                parent[find(parent, local[c][k])] = find(parent, local[c][0]);
+            }
+        }
+
+        int minesLeft = gameModel.getNumberOfMines() - numberOfMineDots;
+        int coveredSafe = 0;
+        for (int k = 0; k < numberOfSafeDots; k++) {
+            if (gameModel.isCovered(safeDots[k] % width, safeDots[k] / width)) {
+                coveredSafe++;
+            }
+        }
+        int others = gameModel.getNumberCovered() - numberOfMineDots - coveredSafe - numberOfDots;
+
+        // Enumerate each component
+        int numberOfComponents = 0;
+        int[] componentOf = new int[numberOfDots];
+        Arrays.fill(componentOf, -1);
+        for (int k = 0; k < numberOfDots; k++) {
+            int root = find(parent, k);
+            if (componentOf[root] < 0) {
+                componentOf[root] = numberOfComponents++;
+            }
+            componentOf[k] = componentOf[root];
+        }
+        Component[] components = new Component[numberOfComponents];
+        for (int k = 0; k < numberOfDots; k++) {
+            if (components[componentOf[k]] == null) {
+                components[componentOf[k]] = new Component();
+            }
+            components[componentOf[k]].addDot(k);
+        }
+        for (int c = 0; c < numberOfConstraints; c++) {
+            components[componentOf[local[c][0]]].addConstraint(local[c], constraintMines[c]);
+        }
+        double estimatedMines = 0;
+        boolean exact = true;
+        for (Component component : components) {
+            if (component.numberOfDots <= MAX_COMPONENT_SIZE) {
+                component.enumerate();
+            } else {
+                estimatedMines += component.estimate();
+                exact = false;
+            }
+        }
+
+        // Weight each total number of mines in the frontier by the number of ways to place the others outside it
+        int maxMines = 0;
+        for (Component component : components) {
+            if (component.solutions != null) {
+                maxMines += component.numberOfDots;
+            }
+        }
+        double effectiveMinesLeft = minesLeft - estimatedMines;
+        double[] weights = outsideWeights(others, (int) Math.round(effectiveMinesLeft), maxMines);
+
+        for (int c = 0; c < numberOfComponents; c++) {
+            Component component = components[c];
+            if (component.solutions == null) {
+                continue;
+            }
+            double[] othersDistribution = {1};
+            for (int o = 0; o < numberOfComponents; o++) {
+                if (o != c && components[o].solutions != null) {
+                    othersDistribution = convolve(othersDistribution, components[o].solutions);
+                }
+            }
+            double[] scale = new double[component.numberOfDots + 1];
+            double total = 0;
+            for (int m = 0; m <= component.numberOfDots; m++) {
+                for (int t = 0; t < othersDistribution.length; t++) {
+                    scale[m] += othersDistribution[t] * weights[m + t];
+                }
+                total += component.solutions[m] * scale[m];
+            }
+            double allSolutions = 0;
+            for (int m = 0; m <= component.numberOfDots; m++) {
+                allSolutions += component.solutions[m];
+            }
+            for (int d = 0; d < component.numberOfDots; d++) {
+                double mined = 0;
+                double minedSolutions = 0;
+                for (int m = 0; m <= component.numberOfDots; m++) {
+                    mined += component.minedSolutions[d][m] * scale[m];
+                    minedSolutions += component.minedSolutions[d][m];
+                }
+                component.probabilities[d] = total > 0 ? mined / total : 0.5;
+                // The weights only prove anything when the number of mines outside the frontier is known exactly
+                if (exact && total > 0 ? mined == 0 : minedSolutions == 0) {
+                    decide(dots[component.dots[d]], SAFE);
+                } else if (exact && total > 0 ? mined == total : minedSolutions == allSolutions && allSolutions > 0) {
+                    decide(dots[component.dots[d]], MINE);
+                }
+            }
+        }
+
+        // Probability of the dots outside the frontier
+        double[] distribution = {1};
+        for (Component component : components) {
+            if (component.solutions != null) {
+                distribution = convolve(distribution, component.solutions);
+            }
+        }
+        double expected = 0;
+        double total = 0;
+        for (int t = 0; t < distribution.length; t++) {
+            total += distribution[t] * weights[t];
+            expected += distribution[t] * weights[t] * (effectiveMinesLeft - t);
+        }
+        otherProbability = others > 0 && total > 0 ? Math.max(0, Math.min(1, expected / total / others)) : 0;
+
+        for (Component component : components) {
+            for (int d = 0; d < component.numberOfDots; d++) {
+                int index = dots[component.dots[d]];
+                knowledge[index] |= IN_COMPONENT;
+                componentDots[numberOfComponentDots] = index;
+                componentProbabilities[numberOfComponentDots++] = component.probabilities[d];
+            }
+        }
+    }
+
+    /**
+     * Returns the relative number of ways to place the mines left outside the frontier,
+     * for each number of mines t placed in the frontier: C(others, minesLeft - t), scaled so that the largest weight is 1.
+     *
+     * @param others     the number of covered, undecided dots outside the frontier
+     * @param minesLeft  the number of undecided mines
+     * @param maxMines   the largest number of mines in the frontier
+     * @return the weights, indexed by the number of mines in the frontier
+     */
+    private static double[] outsideWeights(int others, int minesLeft, int maxMines) {
+        double[] logWeights = new double[maxMines + 1];
+        double max = Double.NEGATIVE_INFINITY;
+        double current = Double.NEGATIVE_INFINITY;
+        for (int t = 0; t <= maxMines; t++) {
+            int outside = minesLeft - t;
+            if (outside < 0 || outside > others) {
+                logWeights[t] = Double.NEGATIVE_INFINITY;
+                current = Double.NEGATIVE_INFINITY;
+                continue;
+            }
+            if (current == Double.NEGATIVE_INFINITY) {
+                current = 0;
+            } else {
+                // C(n, r) / C(n, r + 1) = (r + 1) / (n - r)
+                current += Math.log((outside + 1.0) / (others - outside));
+            }
+            logWeights[t] = current;
+            max = Math.max(max, current);
+        }
+        double[] weights = new double[maxMines + 1];
+        for (int t = 0; t <= maxMines; t++) {
+            weights[t] = logWeights[t] == Double.NEGATIVE_INFINITY ? 0 : Math.exp(logWeights[t] - max);
+        }
+        return weights;
+    }
+
+    /**
+     * Returns the convolution of two distributions of numbers of mines.
+     *
+     * @param a the first distribution
+     * @param b the second distribution
+     * @return the distribution of the sum
+     */
+    private static double[] convolve(double[] a, double[] b) {
+        double[] result = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < b.length; j++) {
+                result[i + j] += a[i] * b[j];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the root of an element in a union-find forest, halving the paths on the way.
+     *
+     * @param parent the forest
+     * @param k      the element
+     * @return the root of the element
+     */
+    private static int find(int[] parent, int k) {
+        while (parent[k] != k) {
+            parent[k] = parent[parent[k]];
+            k = parent[k];
+        }
+        return k;
+    }
+
+    /**
+     * An independent component of the frontier: a set of undecided dots and the constraints on them.
+     * Dots are numbered locally, in the order they were added.
+     */
+    private static class Component {
+
+        private int[] dots = new int[8];
+        private int numberOfDots;
+        private int[][] constraints = new int[8][];
+        private int[] constraintMines = new int[8];
+        private int numberOfConstraints;
+
+        private double[] solutions;
+        private double[][] minedSolutions;
+        private double[] probabilities;
+
+        private int[] position;
+        private int[][] dotConstraints;
+        private int[] assignedMines;
+        private int[] unassigned;
+        private boolean[] assignment;
+
+        private void addDot(int dot) {
+            if (numberOfDots == dots.length) {
+                dots = Arrays.copyOf(dots, numberOfDots * 2);
+            }
+            dots[numberOfDots++] = dot;
+        }
+
+        private void addConstraint(int[] constraintDots, int mines) {
+            if (numberOfConstraints == constraints.length) {
+                constraints = Arrays.copyOf(constraints, numberOfConstraints * 2);
+                constraintMines = Arrays.copyOf(constraintMines, numberOfConstraints * 2);
+            }
+            constraints[numberOfConstraints] = constraintDots;
+            constraintMines[numberOfConstraints++] = mines;
+        }
+
+        /**
+         * Gives each dot the highest density of mines among its constraints, for components too large to enumerate.
+         *
+         * @return the estimated number of mines in the component
+         */
+        private double estimate() {
+            probabilities = new double[numberOfDots];
+            double expected = 0;
+            for (int d = 0; d < numberOfDots; d++) {
+                for (int c = 0; c < numberOfConstraints; c++) {
+                    for (int dot : constraints[c]) {
+                        if (dot == dots[d]) {
+                            probabilities[d] = Math.max(probabilities[d], (double) constraintMines[c] / constraints[c].length);
+                        }
+                    }
+                }
+                expected += probabilities[d];
+            }
+            return expected;
+        }
+
+        /**
+         * Counts the solutions of the component by backtracking, for each number of mines,
+         * and for each dot the solutions in which it is mined. The counts are scaled so that the largest is 1.
+         */
+        private void enumerate() {
+            solutions = new double[numberOfDots + 1];
+            minedSolutions = new double[numberOfDots][numberOfDots + 1];
+            probabilities = new double[numberOfDots];
+            position = new int[dots[numberOfDots - 1] + 1];
+            for (int d = 0; d < numberOfDots; d++) {
+                position[dots[d]] = d;
+            }
+            int[] counts = new int[numberOfDots];
+            for (int c = 0; c < numberOfConstraints; c++) {
+                for (int dot : constraints[c]) {
+                    counts[position[dot]]++;
+                }
+            }
+            dotConstraints = new int[numberOfDots][];
+            for (int d = 0; d < numberOfDots; d++) {
+                dotConstraints[d] = new int[counts[d]];
+                counts[d] = 0;
+            }
+            for (int c = 0; c < numberOfConstraints; c++) {
+                for (int dot : constraints[c]) {
+                    int d = position[dot];
+                    dotConstraints[d][counts[d]++] = c;
+                }
+            }
+            assignedMines = new int[numberOfConstraints];
+            unassigned = new int[numberOfConstraints];
+            for (int c = 0; c < numberOfConstraints; c++) {
+                unassigned[c] = constraints[c].length;
+            }
+            assignment = new boolean[numberOfDots];
+            backtrack(0, 0);
+
+            double max = 0;
+            for (double count : solutions) {
+                max = Math.max(max, count);
+            }
+            if (max > 0) {
+                for (int m = 0; m <= numberOfDots; m++) {
+                    solutions[m] /= max;
+                    for (int d = 0; d < numberOfDots; d++) {
+                        minedSolutions[d][m] /= max;
+                    }
+                }
+            }
+        }
+
+        private void backtrack(int d, int mines) {
+            if (d == numberOfDots) {
+                solutions[mines]++;
+                for (int k = 0; k < numberOfDots; k++) {
+                    if (assignment[k]) {
+                        minedSolutions[k][mines]++;
+                    }
+                }
+                return;
+            }
+            for (int value = 0; value <= 1; value++) {
+                boolean feasible = true;
+                for (int c : dotConstraints[d]) {
+                    unassigned[c]--;
+                    assignedMines[c] += value;
+                    if (assignedMines[c] > constraintMines[c] || assignedMines[c] + unassigned[c] < constraintMines[c]) {
+                        feasible = false;
+                    }
+                }
+                if (feasible) {
+                    assignment[d] = value == 1;
+                    backtrack(d + 1, mines + value);
+                    assignment[d] = false;
+                }
+                for (int c : dotConstraints[d]) {
+                    unassigned[c]++;
+                    assignedMines[c] -= value;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The class <b>SpanList</b> is a reusable list of horizontal spans of dots.
+ * A span is a run of dots on one row, from startX to endX (both included).
+ * The spans are stored packed in a single array of ints, which only grows when needed,
+ * so a list can be cleared and filled again without allocating.
+ */
+public class SpanList {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] spans = new int[INITIAL_CAPACITY * 3];
+    private int size;
+
+    /**
+     * Removes all the spans from the list, keeping its storage.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adds a span at the end of the list.
+     *
+     * @param row    the row of the span
+     * @param startX the x coordinate of the first dot of the span
+     * @param endX   the x coordinate of the last dot of the span
+     */
+    public void add(int row, int startX, int endX) {
+        if (size * 3 == spans.length) {
+            spans = Arrays.copyOf(spans, spans.length * 2);
+        }
+        spans[size * 3] = row;
+        spans[size * 3 + 1] = startX;
+        spans[size * 3 + 2] = endX;
+        size++;
+    }
+
+    /**
+     * Getter method for the number of spans in the list.
+     *
+     * @return the number of spans
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the row of the k-th span.
+     *
+     * @param k the position of the span in the list
+     * @return the row of the span
+     */
+    public int getRow(int k) {
+        return spans[k * 3];
+    }
+
+    /**
+     * Returns the x coordinate of the first dot of the k-th span.
+     *
+     * @param k the position of the span in the list
+     * @return the x coordinate of the first dot of the span
+     */
+    public int getStartX(int k) {
+        return spans[k * 3 + 1];
+    }
+
+    /**
+     * Returns the x coordinate of the last dot of the k-th span.
+     *
+     * @param k the position of the span in the list
+     * @return the x coordinate of the last dot of the span
+     */
+    public int getEndX(int k) {
+        return spans[k * 3 + 2];
+    }
+}
@@ -0,0 +1,68 @@
+package server;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The class <b>BufferPool</b> recycles the direct buffers in which the server writes its responses.
+ * Buffers are taken by the worker threads and given back by whichever thread finished sending them.
+ * The pool keeps at most <b>maxIdle</b> idle buffers; it never blocks, a new buffer is allocated when the pool is empty.
+ */
+public class BufferPool {
+
+    private final int bufferSize;
+    private final int maxIdle;
+    private final ConcurrentLinkedQueue<ByteBuffer> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numberIdle = new AtomicInteger();
+    private final AtomicInteger allocated = new AtomicInteger();
+
+    /**
+     * Constructor used for initializing an empty pool.
+     *
+     * @param bufferSize the size of the buffers
+     * @param maxIdle    the largest number of idle buffers kept
+     */
+    public BufferPool(int bufferSize, int maxIdle) {
+        this.bufferSize = bufferSize;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Takes a cleared buffer from the pool, or allocates one if the pool is empty.
+     *
+     * @return a buffer of the size of the pool
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = idle.poll();
+        if (buffer == null) {
+            allocated.incrementAndGet();
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        numberIdle.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Gives a buffer back to the pool. It must not be used afterwards.
+     *
+     * @param buffer a buffer taken from this pool
+     */
+    public void release(ByteBuffer buffer) {
+        if (numberIdle.incrementAndGet() <= maxIdle) {
+            idle.add(buffer);
+        } else {
+            numberIdle.decrementAndGet();
+        }
+    }
+
+    /**
+     * Getter method for the number of buffers allocated by the pool since its creation.
+     *
+     * @return the number of allocated buffers
+     */
+    public int getAllocated() {
+        return allocated.get();
+    }
+}
@@ -0,0 +1,360 @@
+package server;
+
+import model.GameEngine;
+import model.GameModel;
+import model.MoveResult;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The class <b>GameServer</b> hosts many independent games, played by remote clients through the binary Protocol.
+ * <p>
+ * A single selector thread accepts the connections, reads and decodes the requests, and writes the responses
+ * that could not be written at once. The games are played by a small set of worker threads: each session belongs
+ * to one worker, chosen by its number, so that its moves are played in order and without any lock,
+ * and a long cascade in one game only delays the sessions of the same worker.
+ * The responses only carry the cells changed by each move, written into buffers taken from a BufferPool.
+ * While the responses of a session wait for its socket, its requests are not read, so a client that does not read
+ * its responses only holds the responses to the requests it had already sent.
+ */
+public class GameServer implements Closeable {
+
+    /**
+     * Largest number of cells of a board, to bound the memory taken by each session.
+     */
+    public static final int MAX_CELLS = 1 << 20;
+
+    /**
+     * Largest number of bytes of responses waiting to be written to a session, beyond which the session is closed.
+     * It is larger than the response to any single move on a board of MAX_CELLS cells.
+     */
+    public static final int MAX_QUEUED_BYTES = 16 << 20;
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final ExecutorService[] workers;
+    private final ResponseWriter[] writers;
+    private final BufferPool pool;
+    private final ConcurrentLinkedQueue<Session> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numberOfSessions = new AtomicInteger();
+    private final Thread selectorThread;
+    private int nextId;
+    private volatile boolean running = true;
+
+    /**
+     * Constructor used for initializing a server listening on the given address. It is started by <b>start</b>.
+     *
+     * @param address          the address to listen on, with a port of 0 to choose any free port
+     * @param numberOfWorkers  the number of threads playing the games
+     * @throws IOException if the address cannot be bound
+     */
+    public GameServer(InetSocketAddress address, int numberOfWorkers) throws IOException {
+        pool = new BufferPool(Protocol.MAX_FRAME, 1024);
+        workers = new ExecutorService[numberOfWorkers];
+        writers = new ResponseWriter[numberOfWorkers];
+        for (int k = 0; k < numberOfWorkers; k++) {
+            int worker = k;
+            workers[k] = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "game-worker-" + worker);
+                thread.setDaemon(true);
+                return thread;
+            });
+            writers[k] = new ResponseWriter(pool);
+        }
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        selectorThread = new Thread(this::run, "game-selector");
+    }
+
+    /**
+     * Starts the selector thread.
+     */
+    public void start() {
+        selectorThread.start();
+    }
+
+    /**
+     * Getter method for the port the server listens on.
+     *
+     * @return the local port
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Getter method for the number of open sessions.
+     *
+     * @return the number of connected clients
+     */
+    public int getNumberOfSessions() {
+        return numberOfSessions.get();
+    }
+
+    /**
+     * Getter method for the pool of the response buffers.
+     *
+     * @return the pool of buffers
+     */
+    public BufferPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Stops the server: the connections are closed and the pending moves are dropped.
+     *
+     * @throws IOException if the server channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (ExecutorService worker : workers) {
+            worker.shutdownNow();
+        }
+    }
+
+    /**
+     * Asks the selector thread to write the queued responses of the session once its socket is writable,
+     * and to stop reading its requests until then.
+     *
+     * @param session the session whose socket is full
+     */
+    void requestWrite(Session session) {
+        pendingWrites.add(session);
+        selector.wakeup();
+    }
+
+    /**
+     * Takes into account a closed session.
+     */
+    void sessionClosed() {
+        numberOfSessions.decrementAndGet();
+    }
+
+    /**
+     * Loop of the selector thread.
+     */
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                Session session;
+                while ((session = pendingWrites.poll()) != null) {
+                    SelectionKey key = session.getKey();
+                    if (key.isValid()) {
+                        key.interestOps(SelectionKey.OP_WRITE);
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    session = (Session) key.attachment();
+                    try {
+                        if (key.isWritable() && session.flush()) {
+                            key.interestOps(SelectionKey.OP_READ);
+                        }
+                        if (key.isValid() && key.isReadable() && (key.interestOps() & SelectionKey.OP_READ) != 0) {
+                            read(session);
+                        }
+                    } catch (IOException e) {
+                        session.close();
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            System.err.println("Game server stopped: " + e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Session) {
+                    ((Session) key.attachment()).close();
+                }
+            }
+            try {
+                selector.close();
+                serverChannel.close();
+            } catch (IOException e) {
+                // The server is stopping anyway
+            }
+        }
+    }
+
+    /**
+     * Accepts the pending connections.
+     *
+     * @throws IOException if the selector fails
+     */
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Session session = new Session(nextId++ & Integer.MAX_VALUE, channel, this);
+            session.setKey(channel.register(selector, SelectionKey.OP_READ, session));
+            numberOfSessions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Reads the available bytes of a session and dispatches the complete requests to its worker.
+     * A malformed frame closes the connection.
+     *
+     * @param session the session to read
+     * @throws IOException if the socket cannot be read
+     */
+    private void read(Session session) throws IOException {
+        ByteBuffer in = session.getIn();
+        if (session.getChannel().read(in) < 0) {
+            session.close();
+            return;
+        }
+        in.flip();
+        while (in.remaining() >= 4) {
+            int length = in.getInt(in.position());
+            if (length < 1 || length > Protocol.MAX_REQUEST) {
+                session.close();
+                return;
+            }
+            if (in.remaining() < 4 + length) {
+                break;
+            }
+            int end = in.position() + 4 + length;
+            int limit = in.limit();
+            in.position(in.position() + 4);
+            in.limit(end);
+            dispatch(session, in);
+            in.limit(limit);
+            in.position(end);
+        }
+        in.compact();
+    }
+
+    /**
+     * Decodes one request and hands it to the worker of the session.
+     * A request of an unknown type, or whose frame is too short or too long for its type, is answered with ERROR_MALFORMED.
+     *
+     * @param session the session that sent the request
+     * @param in      the buffer positioned on the type of the request, limited to the end of its frame
+     */
+    private void dispatch(Session session, ByteBuffer in) {
+        int worker = session.getId() % workers.length;
+        ResponseWriter writer = writers[worker];
+        Runnable request = null;
+        try {
+            byte type = in.get();
+            if (type == Protocol.NEW_GAME) {
+                int width = Protocol.getVarint(in);
+                int height = Protocol.getVarint(in);
+                int numberOfMines = Protocol.getVarint(in);
+                long seed = in.getLong();
+                request = () -> newGame(session, writer, width, height, numberOfMines, seed);
+            } else if (type == Protocol.REVEAL || type == Protocol.FLAG || type == Protocol.CHORD) {
+                int x = Protocol.getVarint(in);
+                int y = Protocol.getVarint(in);
+                request = () -> play(session, writer, type, x, y);
+            }
+        } catch (BufferUnderflowException e) {
+            request = null;
+        }
+        if (request == null || in.hasRemaining()) {
+            request = () -> writer.sendFrame(session, Protocol.ERROR, Protocol.ERROR_MALFORMED);
+        }
+        workers[worker].execute(request);
+    }
+
+    /**
+     * Starts a new game in the session. The engine of the previous game is reused if the board has the same size.
+     * The first reveal of the game is always safe, the mines being placed around it.
+     * A varint beyond the range of an int is decoded as a negative value, which fails the checks like any other
+     * invalid size.
+     */
+    private void newGame(Session session, ResponseWriter writer, int width, int height, int numberOfMines, long seed) {
+        if (width < 1 || height < 1 || (long) width * height > MAX_CELLS || numberOfMines < 1 || numberOfMines >= width * height) {
+            writer.sendFrame(session, Protocol.ERROR, Protocol.ERROR_INVALID_GAME);
+            return;
+        }
+        GameEngine gameEngine = session.getEngine();
+        if (gameEngine == null || gameEngine.getModel().getWidth() != width || gameEngine.getModel().getHeight() != height
+                || gameEngine.getModel().getNumberOfMines() != numberOfMines) {
+            GameModel gameModel = new GameModel(width, height, numberOfMines, new Random(seed), false);
+            gameModel.setDeferredPlacement(true);
+            gameModel.setSafeNeighbourhood(true);
+            gameEngine = new GameEngine(gameModel);
+            session.setEngine(gameEngine);
+        }
+        gameEngine.reset(seed);
+        writer.sendFrame(session, Protocol.STARTED, width, height, numberOfMines);
+    }
+
+    /**
+     * Plays a move in the game of the session, and sends the cells it changed.
+     * The coordinates are checked before any buffer is taken, a negative one coming from a varint beyond the range of an int.
+     */
+    private void play(Session session, ResponseWriter writer, byte type, int x, int y) {
+        GameEngine gameEngine = session.getEngine();
+        if (gameEngine == null) {
+            writer.sendFrame(session, Protocol.ERROR, Protocol.ERROR_NO_GAME);
+            return;
+        }
+        GameModel gameModel = gameEngine.getModel();
+        if (x < 0 || y < 0 || x >= gameModel.getWidth() || y >= gameModel.getHeight()) {
+            writer.sendFrame(session, Protocol.ERROR, Protocol.ERROR_OUT_OF_BOARD);
+            return;
+        }
+        writer.begin(session);
+        MoveResult.Outcome outcome;
+        if (type == Protocol.FLAG) {
+            if (gameEngine.toggleFlag(x, y)) {
+                writer.run(gameModel, y, x, x);
+                outcome = MoveResult.Outcome.SAFE;
+            } else {
+                outcome = MoveResult.Outcome.IGNORED;
+            }
+        } else {
+            MoveResult result = type == Protocol.REVEAL ? gameEngine.reveal(x, y) : gameEngine.chord(x, y);
+            for (int k = 0; k < result.getSpans().size(); k++) {
+                writer.run(gameModel, result.getSpans().getRow(k), result.getSpans().getStartX(k), result.getSpans().getEndX(k));
+            }
+            outcome = result.getOutcome();
+            if (outcome == MoveResult.Outcome.MINE || outcome == MoveResult.Outcome.WON) {
+                for (int k = 0; k < gameModel.getNumberOfPlacedMines(); k++) {
+                    int index = gameModel.getMineIndex(k);
+                    writer.run(gameModel, index / gameModel.getWidth(), index % gameModel.getWidth(), index % gameModel.getWidth());
+                }
+            }
+        }
+        writer.finish(outcome.ordinal(), gameModel.getNumberOfSteps());
+    }
+}
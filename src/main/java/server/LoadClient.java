@@ -0,0 +1,273 @@
+package server;
+
+import metrics.Histogram;
+import model.MoveResult;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * The class <b>LoadClient</b> loads a GameServer with many simultaneous games, from a single selector thread.
+ * Each connection plays one game after the other: it keeps its own copy of the board from the cells sent by the server,
+ * reveals random covered cells (and now and then puts a flag), and starts a new game when the game is over.
+ * Each connection waits for the response to a move before playing the next one, so the measured latency
+ * is the time between sending a move and receiving the end of its response.
+ */
+public class LoadClient {
+
+    private static final int FLAG_PERIOD = 16;
+
+    private final InetSocketAddress address;
+    private final int numberOfConnections;
+    private final int width;
+    private final int height;
+    private final int numberOfMines;
+    private final Random random;
+    private final Histogram latency = new Histogram("move.latency", "ns");
+    private long numberOfMoves;
+    private long numberOfGames;
+    private long numberOfWins;
+    private long numberOfErrors;
+    private long bytesReceived;
+
+    /**
+     * Constructor used for initializing a client playing on boards of the given size.
+     *
+     * @param address             the address of the server
+     * @param numberOfConnections the number of simultaneous games
+     * @param width               the width of the boards
+     * @param height              the height of the boards
+     * @param numberOfMines       the number of mines of the boards
+     * @param seed                the seed of the games and of the moves
+     */
+    public LoadClient(InetSocketAddress address, int numberOfConnections, int width, int height, int numberOfMines, long seed) {
+        this.address = address;
+        this.numberOfConnections = numberOfConnections;
+        this.width = width;
+        this.height = height;
+        this.numberOfMines = numberOfMines;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Connects to the server and plays for the given time, then closes the connections.
+     *
+     * @param durationMillis the duration of the load, in milliseconds
+     * @throws IOException if the connections cannot be opened
+     */
+    public void run(long durationMillis) throws IOException {
+        try (Selector selector = Selector.open()) {
+            for (int k = 0; k < numberOfConnections; k++) {
+                SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel.connect(address);
+                channel.register(selector, SelectionKey.OP_CONNECT, new Connection(channel));
+            }
+            long deadline = System.nanoTime() + durationMillis * 1_000_000L;
+            long remaining;
+            while ((remaining = deadline - System.nanoTime()) > 0) {
+                selector.select(Math.max(1, remaining / 1_000_000L));
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isConnectable()) {
+                            connection.channel.finishConnect();
+                            key.interestOps(SelectionKey.OP_READ);
+                            connection.newGame();
+                        } else if (key.isReadable()) {
+                            connection.read();
+                        }
+                    } catch (IOException e) {
+                        numberOfErrors++;
+                        key.cancel();
+                        connection.channel.close();
+                    }
+                }
+            }
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+        }
+    }
+
+    /**
+     * Getter method for the latency of the moves.
+     *
+     * @return the histogram of the latencies, in nanoseconds
+     */
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Getter method for the number of moves played.
+     *
+     * @return the number of responses received to a move
+     */
+    public long getNumberOfMoves() {
+        return numberOfMoves;
+    }
+
+    /**
+     * Getter method for the number of games finished.
+     *
+     * @return the number of games lost or won
+     */
+    public long getNumberOfGames() {
+        return numberOfGames;
+    }
+
+    /**
+     * Getter method for the number of games won.
+     *
+     * @return the number of games won
+     */
+    public long getNumberOfWins() {
+        return numberOfWins;
+    }
+
+    /**
+     * Getter method for the number of errors: error responses, and connections lost.
+     *
+     * @return the number of errors
+     */
+    public long getNumberOfErrors() {
+        return numberOfErrors;
+    }
+
+    /**
+     * Getter method for the number of bytes received from the server.
+     *
+     * @return the number of bytes received
+     */
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * A connection to the server, with its copy of the board.
+     */
+    private class Connection {
+
+        private final SocketChannel channel;
+        private final ByteBuffer in = ByteBuffer.allocate(2 * Protocol.MAX_FRAME);
+        private final ByteBuffer out = ByteBuffer.allocate(Protocol.MAX_REQUEST + 4);
+        private final byte[] cells = new byte[width * height];
+        private long sentAt;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        private void newGame() throws IOException {
+            out.clear();
+            out.putInt(0);
+            out.put(Protocol.NEW_GAME);
+            Protocol.putVarint(out, width);
+            Protocol.putVarint(out, height);
+            Protocol.putVarint(out, numberOfMines);
+            out.putLong(random.nextLong());
+            send();
+        }
+
+        /**
+         * Plays a random covered cell: a reveal most of the time, a flag now and then.
+         */
+        private void play() throws IOException {
+            int start = random.nextInt(cells.length);
+            int index = start;
+            while (cells[index] != Protocol.COVERED) {
+                index = index + 1 == cells.length ? 0 : index + 1;
+                if (index == start) {
+                    newGame();
+                    return;
+                }
+            }
+            out.clear();
+            out.putInt(0);
+            out.put(random.nextInt(FLAG_PERIOD) == 0 ? Protocol.FLAG : Protocol.REVEAL);
+            Protocol.putVarint(out, index % width);
+            Protocol.putVarint(out, index / width);
+            sentAt = System.nanoTime();
+            send();
+        }
+
+        private void send() throws IOException {
+            out.putInt(0, out.position() - 4);
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+
+        /**
+         * Reads the available frames, and answers those that end a response.
+         */
+        private void read() throws IOException {
+            int read = channel.read(in);
+            if (read < 0) {
+                throw new IOException("Connection closed by the server");
+            }
+            bytesReceived += read;
+            in.flip();
+            while (in.remaining() >= 4 && in.remaining() >= 4 + in.getInt(in.position())) {
+                int end = in.position() + 4 + in.getInt();
+                byte type = in.get();
+                if (type == Protocol.STARTED) {
+                    Arrays.fill(cells, (byte) Protocol.COVERED);
+                    in.position(end);
+                    play();
+                } else if (type == Protocol.CELLS) {
+                    while (in.position() < end) {
+                        readRun();
+                    }
+                } else if (type == Protocol.RESULT) {
+                    int outcome = Protocol.getVarint(in);
+                    Protocol.getVarint(in);
+                    latency.record(System.nanoTime() - sentAt);
+                    numberOfMoves++;
+                    if (outcome == MoveResult.Outcome.MINE.ordinal() || outcome == MoveResult.Outcome.WON.ordinal()) {
+                        numberOfGames++;
+                        if (outcome == MoveResult.Outcome.WON.ordinal()) {
+                            numberOfWins++;
+                        }
+                        newGame();
+                    } else {
+                        play();
+                    }
+                } else {
+                    numberOfErrors++;
+                    newGame();
+                }
+                in.position(end);
+            }
+            in.compact();
+        }
+
+        private void readRun() {
+            int row = Protocol.getVarint(in);
+            int startX = Protocol.getVarint(in);
+            int count = Protocol.getVarint(in);
+            int index = row * width + startX;
+            for (int k = 0; k < count; k += 2) {
+                int codes = in.get();
+                cells[index + k] = (byte) (codes & 0x0F);
+                if (k + 1 < count) {
+                    cells[index + k + 1] = (byte) (codes >>> 4 & 0x0F);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package server;
+
+import model.GameModel;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The class <b>Protocol</b> defines the binary protocol between the GameServer and its clients.
+ * <p>
+ * Every message is a frame: its length as a 4-byte big-endian int, then the payload, whose first byte is the type of the message.
+ * The numbers inside the payload are unsigned varints (seven bits per byte, high bit set on all the bytes but the last).
+ * <pre>
+ * requests:  NEW_GAME width height mines seed(8 bytes) | REVEAL x y | FLAG x y | CHORD x y
+ * responses: STARTED width height mines
+ *            CELLS run...             (cells changed by a move, zero or more frames)
+ *            RESULT outcome steps     (end of the response to a move)
+ *            ERROR code
+ * run:       row startX count, then the codes of the count cells, two 4-bit codes per byte
+ * </pre>
+ * A move result only carries the cells that changed: the runs of cells uncovered by the move, the flag that was toggled,
+ * and the mines uncovered at the end of the game. The cell codes are the icon numbers of the game (0 to 8, mine,
+ * clicked mine, covered, flag). The outcome is the ordinal of MoveResult.Outcome.
+ * The frames of a response usually share a single write.
+ */
+public final class Protocol {
+
+    public static final byte NEW_GAME = 1;
+    public static final byte REVEAL = 2;
+    public static final byte FLAG = 3;
+    public static final byte CHORD = 4;
+
+    public static final byte STARTED = 1;
+    public static final byte CELLS = 2;
+    public static final byte RESULT = 3;
+    public static final byte ERROR = 4;
+
+    public static final int ERROR_MALFORMED = 1;
+    public static final int ERROR_NO_GAME = 2;
+    public static final int ERROR_OUT_OF_BOARD = 3;
+    public static final int ERROR_INVALID_GAME = 4;
+
+    public static final int MINE = 9;
+    public static final int CLICKED_MINE = 10;
+    public static final int COVERED = 11;
+    public static final int FLAGGED = 12;
+
+    /**
+     * Largest frame, length included. Every response frame fits in one pooled buffer of this size.
+     */
+    public static final int MAX_FRAME = 16 * 1024;
+
+    /**
+     * Largest request payload.
+     */
+    public static final int MAX_REQUEST = 32;
+
+    /**
+     * Largest number of cells in one run, so that a run always fits in a frame.
+     */
+    public static final int MAX_RUN = 4096;
+
+    private Protocol() {
+    }
+
+    /**
+     * Returns the code of the cell at location (x,y), as the player sees it.
+     *
+     * @param gameModel the model of the game
+     * @param x         the x coordinate of the cell
+     * @param y         the y coordinate of the cell
+     * @return the code of the cell
+     */
+    public static int cellCode(GameModel gameModel, int x, int y) {
+        if (gameModel.isFlag(x, y)) {
+            return FLAGGED;
+        } else if (gameModel.isCovered(x, y)) {
+            return COVERED;
+        } else if (gameModel.isMined(x, y)) {
+            return gameModel.hasBeenClicked(x, y) ? CLICKED_MINE : MINE;
+        } else {
+            return gameModel.getNeighbouringMines(x, y);
+        }
+    }
+
+    /**
+     * Returns the largest number of bytes taken by a run of the given number of cells.
+     *
+     * @param count the number of cells of the run
+     * @return the size of the run
+     */
+    public static int runSize(int count) {
+        return 15 + (count + 1) / 2;
+    }
+
+    /**
+     * Writes an unsigned varint.
+     *
+     * @param buffer the buffer to write to
+     * @param value  the value, read as unsigned
+     */
+    public static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned varint. A value above Integer.MAX_VALUE comes back negative, so the callers must check the sign.
+     *
+     * @param buffer the buffer to read from
+     * @return the value
+     * @throws java.nio.BufferUnderflowException if the buffer ends in the middle of the varint
+     */
+    public static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0 || shift >= 28) {
+                return value;
+            }
+        }
+    }
+}
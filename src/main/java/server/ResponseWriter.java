@@ -0,0 +1,125 @@
+package server;
+
+import model.GameModel;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A <b>ResponseWriter</b> encodes the response to a move into pooled buffers, and sends them to the session.
+ * The runs of changed cells are gathered in CELLS frames, and the move ends with a RESULT frame.
+ * Several frames share a buffer; a buffer is sent when the next run does not fit, and at the end of the move.
+ * Each worker thread has its own writer, so a writer is never used by two threads at once.
+ */
+class ResponseWriter {
+
+    private final BufferPool pool;
+    private Session session;
+    private ByteBuffer buffer;
+    private int frameStart = -1;
+
+    /**
+     * Constructor used for initializing a writer taking its buffers from the given pool.
+     *
+     * @param pool the pool of buffers
+     */
+    ResponseWriter(BufferPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Starts the response to a move of the given session.
+     *
+     * @param session the session that played the move
+     */
+    void begin(Session session) {
+        this.session = session;
+        buffer = pool.acquire();
+        frameStart = -1;
+    }
+
+    /**
+     * Adds the cells of a row, from startX to endX, with their current codes.
+     *
+     * @param gameModel the model of the game
+     * @param row       the row of the cells
+     * @param startX    the x coordinate of the first cell
+     * @param endX      the x coordinate of the last cell
+     */
+    void run(GameModel gameModel, int row, int startX, int endX) {
+        for (int from = startX; from <= endX; from += Protocol.MAX_RUN) {
+            int count = Math.min(endX - from + 1, Protocol.MAX_RUN);
+            if (buffer.remaining() < Protocol.runSize(count) + (frameStart < 0 ? 5 : 0)) {
+                endFrame();
+                sendBuffer();
+                buffer = pool.acquire();
+            }
+            if (frameStart < 0) {
+                frameStart = buffer.position();
+                buffer.putInt(0);
+                buffer.put(Protocol.CELLS);
+            }
+            Protocol.putVarint(buffer, row);
+            Protocol.putVarint(buffer, from);
+            Protocol.putVarint(buffer, count);
+            for (int k = 0; k < count; k += 2) {
+                int low = Protocol.cellCode(gameModel, from + k, row);
+                int high = k + 1 < count ? Protocol.cellCode(gameModel, from + k + 1, row) : 0;
+                buffer.put((byte) (low | high << 4));
+            }
+        }
+    }
+
+    /**
+     * Ends the response with the RESULT frame, and sends it.
+     *
+     * @param outcome       the ordinal of the outcome of the move
+     * @param numberOfSteps the number of steps of the game
+     */
+    void finish(int outcome, int numberOfSteps) {
+        endFrame();
+        if (buffer.remaining() < 16) {
+            sendBuffer();
+            buffer = pool.acquire();
+        }
+        int start = buffer.position();
+        buffer.putInt(0);
+        buffer.put(Protocol.RESULT);
+        Protocol.putVarint(buffer, outcome);
+        Protocol.putVarint(buffer, numberOfSteps);
+        buffer.putInt(start, buffer.position() - start - 4);
+        sendBuffer();
+        session = null;
+    }
+
+    /**
+     * Sends a frame made of a type and varints, on its own.
+     *
+     * @param session the session to send it to
+     * @param type    the type of the frame
+     * @param values  the varints of the frame
+     */
+    void sendFrame(Session session, byte type, int... values) {
+        ByteBuffer frame = pool.acquire();
+        frame.putInt(0);
+        frame.put(type);
+        for (int value : values) {
+            Protocol.putVarint(frame, value);
+        }
+        frame.putInt(0, frame.position() - 4);
+        frame.flip();
+        session.send(frame);
+    }
+
+    private void endFrame() {
+        if (frameStart >= 0) {
+            buffer.putInt(frameStart, buffer.position() - frameStart - 4);
+            frameStart = -1;
+        }
+    }
+
+    private void sendBuffer() {
+        buffer.flip();
+        session.send(buffer);
+        buffer = null;
+    }
+}
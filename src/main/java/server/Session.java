@@ -0,0 +1,166 @@
+package server;
+
+import model.GameEngine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+
+/**
+ * A <b>Session</b> is one client connection of the GameServer, with its game.
+ * The requests are read by the selector thread; the game is only played by the worker thread of the session's shard,
+ * so the engine needs no lock. The responses are written by the worker directly when the socket accepts them,
+ * otherwise they are queued and written by the selector thread when the socket becomes writable.
+ * While responses are queued, the selector thread stops reading the requests of the session, so a client that does not
+ * read its responses stops being served; if the queue still grows beyond GameServer.MAX_QUEUED_BYTES, the session is closed.
+ */
+class Session {
+
+    private final int id;
+    private final SocketChannel channel;
+    private final GameServer server;
+    private final ArrayDeque<ByteBuffer> outbound = new ArrayDeque<>();
+    private final ByteBuffer in = ByteBuffer.allocate(4 * (Protocol.MAX_REQUEST + 4));
+    private SelectionKey key;
+    private GameEngine gameEngine;
+    private int queuedBytes;
+    private boolean closed;
+
+    /**
+     * Constructor used for initializing the session of a newly accepted connection.
+     *
+     * @param id      the number of the session, which chooses its shard
+     * @param channel the channel of the connection
+     * @param server  the server of the session
+     */
+    Session(int id, SocketChannel channel, GameServer server) {
+        this.id = id;
+        this.channel = channel;
+        this.server = server;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    SelectionKey getKey() {
+        return key;
+    }
+
+    void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    /**
+     * Getter method for the buffer in which the requests are read. Only used by the selector thread.
+     *
+     * @return the buffer of the requests
+     */
+    ByteBuffer getIn() {
+        return in;
+    }
+
+    /**
+     * Getter method for the engine of the game. Only used by the worker thread of the session.
+     *
+     * @return the engine, or null if no game was started
+     */
+    GameEngine getEngine() {
+        return gameEngine;
+    }
+
+    void setEngine(GameEngine gameEngine) {
+        this.gameEngine = gameEngine;
+    }
+
+    /**
+     * Sends a buffer of frames, ready to be written. The buffer goes back to the pool once written.
+     * The session is closed if the bytes waiting to be written would go beyond GameServer.MAX_QUEUED_BYTES.
+     *
+     * @param buffer the frames to send
+     */
+    synchronized void send(ByteBuffer buffer) {
+        if (closed) {
+            server.getPool().release(buffer);
+            return;
+        }
+        if (!outbound.isEmpty()) {
+            queue(buffer);
+            return;
+        }
+        try {
+            channel.write(buffer);
+        } catch (IOException e) {
+            server.getPool().release(buffer);
+            close();
+            return;
+        }
+        if (buffer.hasRemaining()) {
+            queue(buffer);
+            server.requestWrite(this);
+        } else {
+            server.getPool().release(buffer);
+        }
+    }
+
+    /**
+     * Adds a buffer to the queue of the responses, or closes the session if the queue would be too large.
+     *
+     * @param buffer the frames left to send
+     */
+    private void queue(ByteBuffer buffer) {
+        if (queuedBytes + buffer.remaining() > GameServer.MAX_QUEUED_BYTES) {
+            server.getPool().release(buffer);
+            close();
+            return;
+        }
+        queuedBytes += buffer.remaining();
+        outbound.add(buffer);
+    }
+
+    /**
+     * Writes the queued buffers, as far as the socket accepts them. Called by the selector thread.
+     *
+     * @return true if all the buffers were written
+     * @throws IOException if the socket cannot be written
+     */
+    synchronized boolean flush() throws IOException {
+        ByteBuffer buffer;
+        while ((buffer = outbound.peek()) != null) {
+            queuedBytes -= channel.write(buffer);
+            if (buffer.hasRemaining()) {
+                return false;
+            }
+            outbound.poll();
+            server.getPool().release(buffer);
+        }
+        return true;
+    }
+
+    /**
+     * Closes the connection and gives the queued buffers back to the pool.
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        ByteBuffer buffer;
+        while ((buffer = outbound.poll()) != null) {
+            server.getPool().release(buffer);
+        }
+        queuedBytes = 0;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing more to do with this connection
+        }
+        server.sessionClosed();
+    }
+}
@@ -0,0 +1,130 @@
+package simulation;
+
+/**
+ * The class <b>SimulationResult</b> accumulates the statistics of simulated games:
+ * the number of games and wins, and histograms of the number of steps per game and of the size of the cascades.
+ * The histograms use power-of-two buckets: bucket k counts the values from 2^(k-1) to 2^k - 1, bucket 0 counts zeros.
+ * Results are merged with sums only, so they do not depend on the order in which games are played or merged.
+ */
+public class SimulationResult {
+
+    private static final int BUCKETS = 33;
+
+    private long games;
+    private long wins;
+    private long totalSteps;
+    private final long[] stepsHistogram = new long[BUCKETS];
+    private final long[] cascadeHistogram = new long[BUCKETS];
+
+    /**
+     * Records a finished game.
+     *
+     * @param won   true if the game was won
+     * @param steps the number of steps played
+     */
+    public void addGame(boolean won, int steps) {
+        games++;
+        if (won) {
+            wins++;
+        }
+        totalSteps += steps;
+        stepsHistogram[bucket(steps)]++;
+    }
+
+    /**
+     * Records the number of dots uncovered by a move.
+     *
+     * @param size the number of dots uncovered
+     */
+    public void addCascade(int size) {
+        cascadeHistogram[bucket(size)]++;
+    }
+
+    /**
+     * Adds the statistics of another result to this one.
+     *
+     * @param other the result to add
+     */
+    public void merge(SimulationResult other) {
+        games += other.games;
+        wins += other.wins;
+        totalSteps += other.totalSteps;
+        for (int k = 0; k < BUCKETS; k++) {
+            stepsHistogram[k] += other.stepsHistogram[k];
+            cascadeHistogram[k] += other.cascadeHistogram[k];
+        }
+    }
+
+    /**
+     * Getter method for the number of games played.
+     *
+     * @return the number of games
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Getter method for the number of games won.
+     *
+     * @return the number of wins
+     */
+    public long getWins() {
+        return wins;
+    }
+
+    /**
+     * Returns the proportion of games won.
+     *
+     * @return the win rate, between 0 and 1
+     */
+    public double getWinRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    /**
+     * Returns the average number of steps per game.
+     *
+     * @return the average number of steps
+     */
+    public double getAverageSteps() {
+        return games == 0 ? 0 : (double) totalSteps / games;
+    }
+
+    /**
+     * Returns the power-of-two bucket of a value.
+     *
+     * @param value a non-negative value
+     * @return the bucket of the value
+     */
+    private static int bucket(int value) {
+        return 32 - Integer.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * Builds a text report of the statistics.
+     *
+     * @return the report
+     */
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append("Games: ").append(games)
+                .append(" | Wins: ").append(wins)
+                .append(String.format(" | Win rate: %.2f%%", getWinRate() * 100))
+                .append(String.format(" | Average steps: %.2f%n", getAverageSteps()));
+        appendHistogram(stringBuilder, "Steps per game", stepsHistogram);
+        appendHistogram(stringBuilder, "Dots uncovered per move", cascadeHistogram);
+        return stringBuilder.toString();
+    }
+
+    private static void appendHistogram(StringBuilder stringBuilder, String title, long[] histogram) {
+        stringBuilder.append(title).append(":\n");
+        for (int k = 0; k < BUCKETS; k++) {
+            if (histogram[k] > 0) {
+                long from = k == 0 ? 0 : 1L << (k - 1);
+                long to = k == 0 ? 0 : (1L << k) - 1;
+                stringBuilder.append(String.format("  %10d - %-10d %d%n", from, to, histogram[k]));
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package simulation;
+
+import model.GameEngine;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The class <b>Simulator</b> plays many seeded games of one configuration (width, height, number of mines)
+ * in parallel on a fork/join pool, and aggregates their statistics.
+ * The seed of each game only depends on the seed of the simulation and the number of the game,
+ * and the statistics are merged with sums, so a simulation always gives the same result for the same seed,
+ * whatever the number of threads. Each worker thread reuses its own board and solver for all its games.
+ */
+public class Simulator {
+
+    /**
+     * Number of games below which a range of games is not split any further.
+     */
+    private static final int GAMES_PER_TASK = 64;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor used for initializing a simulator with the given number of threads.
+     *
+     * @param threads the number of worker threads
+     */
+    public Simulator(int threads) {
+        pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Plays the given number of games of one configuration.
+     *
+     * @param width         the width of the board
+     * @param height        the height of the board
+     * @param numberOfMines the number of mines
+     * @param games         the number of games to play
+     * @param seed          the seed of the simulation
+     * @return the aggregated statistics of the games
+     */
+    public SimulationResult run(int width, int height, int numberOfMines, long games, long seed) {
+        ThreadLocal<SolverPlayer> players = ThreadLocal.withInitial(
+                () -> new SolverPlayer(new GameEngine(width, height, numberOfMines, new Random(seed))));
+        return pool.invoke(new GamesTask(players, seed, 0, games));
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Returns the seed of a game, mixing the seed of the simulation with the number of the game
+     * (the finalizer of MurmurHash3), so that neighbouring games get unrelated boards.
+     *
+     * @param seed the seed of the simulation
+     * @param game the number of the game
+     * @return the seed of the game
+     */
+    public static long gameSeed(long seed, long game) {
+        long h = seed + game * 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * Plays a range of games, splitting it in halves until it is small enough.
+     */
+    private static class GamesTask extends RecursiveTask<SimulationResult> {
+
+        private final ThreadLocal<SolverPlayer> players;
+        private final long seed;
+        private final long from;
+        private final long to;
+
+        private GamesTask(ThreadLocal<SolverPlayer> players, long seed, long from, long to) {
+            this.players = players;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                SimulationResult result = new SimulationResult();
+                SolverPlayer player = players.get();
+                for (long game = from; game < to; game++) {
+                    player.play(gameSeed(seed, game), result);
+                }
+                return result;
+            }
+            long middle = (from + to) >>> 1;
+            GamesTask left = new GamesTask(players, seed, from, middle);
+            left.fork();
+            SimulationResult result = new GamesTask(players, seed, middle, to).compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package simulation;
+
+import model.GameEngine;
+import model.MoveResult;
+import model.Solver;
+
+import java.util.Random;
+
+/**
+ * The class <b>SolverPlayer</b> plays complete games on a GameEngine, following its Solver.
+ * The first move is a random dot; afterwards it reveals every safe dot found by the solver,
+ * and only guesses the dot least likely to be mined when no dot is safe.
+ * A player reuses its engine, solver and random generator from one game to the next.
+ */
+public class SolverPlayer {
+
+    private final GameEngine gameEngine;
+    private final Solver solver;
+    private final Random random = new Random();
+
+    /**
+     * Constructor used for initializing a player on the given engine.
+     *
+     * @param gameEngine the engine on which the games are played
+     */
+    public SolverPlayer(GameEngine gameEngine) {
+        this.gameEngine = gameEngine;
+        solver = gameEngine.getSolver();
+    }
+
+    /**
+     * Getter method for the engine on which the games are played.
+     *
+     * @return the engine
+     */
+    public GameEngine getEngine() {
+        return gameEngine;
+    }
+
+    /**
+     * Plays a complete game. The same seed always gives the same game.
+     *
+     * @param seed   the seed of the game, used for the mines and the first move
+     * @param result the result in which the game is recorded
+     * @return true if the game was won
+     */
+    public boolean play(long seed, SimulationResult result) {
+        gameEngine.reset(seed);
+        random.setSeed(seed);
+        int width = gameEngine.getModel().getWidth();
+        int height = gameEngine.getModel().getHeight();
+        MoveResult move = gameEngine.reveal(random.nextInt(width), random.nextInt(height));
+        result.addCascade(move.getNumberOpened());
+        boolean won = move.getOutcome() == MoveResult.Outcome.WON;
+        while (!gameEngine.isOver()) {
+            solver.solve();
+            int[] safeMoves = solver.nextSafeMoves();
+            if (safeMoves.length == 0) {
+                won = reveal(solver.bestGuess(), width, result);
+            }
+            for (int k = 0; k < safeMoves.length && !gameEngine.isOver(); k++) {
+                won = reveal(safeMoves[k], width, result);
+            }
+        }
+        result.addGame(won, gameEngine.getModel().getNumberOfSteps());
+        return won;
+    }
+
+    /**
+     * Reveals a dot and records the size of the cascade.
+     *
+     * @param index  the index of the dot, y * width + x
+     * @param width  the width of the board
+     * @param result the result in which the cascade is recorded
+     * @return true if the move won the game
+     */
+    private boolean reveal(int index, int width, SimulationResult result) {
+        MoveResult move = gameEngine.reveal(index % width, index / width);
+        if (move.getOutcome() != MoveResult.Outcome.IGNORED) {
+            result.addCascade(move.getNumberOpened());
+        }
+        return move.getOutcome() == MoveResult.Outcome.WON;
+    }
+}
@@ -0,0 +1,120 @@
+package view;
+
+import model.GameModel;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * In the application Minesweeper, a BoardPanel is a single component that paints the whole board,
+ * as an alternative to laying out one DotButton per square.
+ * It draws the tiles of the IconAtlas at the current zoom level, and only paints the squares inside the clip of the repaint request.
+ * It does not handle the mouse itself: the controller listens to it,
+ * and uses <b>getColumnAt</b> and <b>getRowAt</b> to find the square under the mouse.
+ */
+public class BoardPanel extends JComponent {
+
+    private GameModel gameModel;
+    private int zoomLevel = IconAtlas.DEFAULT_ZOOM_LEVEL;
+
+    /**
+     * Constructor used for initializing a BoardPanel for the given model.
+     *
+     * @param gameModel the model of the game
+     */
+    public BoardPanel(GameModel gameModel) {
+        this.gameModel = gameModel;
+        setPreferredSize(new Dimension(gameModel.getWidth() * getTileSize(), gameModel.getHeight() * getTileSize()));
+        setOpaque(true);
+    }
+
+    /**
+     * Getter method for the current size in pixels of a square.
+     *
+     * @return the size of a square at the current zoom level
+     */
+    public int getTileSize() {
+        return IconAtlas.ZOOM_SIZES[zoomLevel];
+    }
+
+    /**
+     * Getter method for the current zoom level.
+     *
+     * @return the current zoom level, an index in IconAtlas.ZOOM_SIZES
+     */
+    public int getZoomLevel() {
+        return zoomLevel;
+    }
+
+    /**
+     * Changes the zoom level, resizing the panel accordingly. Levels out of range are clamped.
+     *
+     * @param zoomLevel the new zoom level, an index in IconAtlas.ZOOM_SIZES
+     */
+    public void setZoomLevel(int zoomLevel) {
+        this.zoomLevel = Math.max(0, Math.min(zoomLevel, IconAtlas.ZOOM_SIZES.length - 1));
+        setPreferredSize(new Dimension(gameModel.getWidth() * getTileSize(), gameModel.getHeight() * getTileSize()));
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Returns the column of the square at the given x position (in pixels) in the panel.
+     *
+     * @param x the x position in the panel
+     * @return the column of the square, or -1 if the position is outside the board
+     */
+    public int getColumnAt(int x) {
+        int column = x / getTileSize();
+        return x < 0 || column >= gameModel.getWidth() ? -1 : column;
+    }
+
+    /**
+     * Returns the row of the square at the given y position (in pixels) in the panel.
+     *
+     * @param y the y position in the panel
+     * @return the row of the square, or -1 if the position is outside the board
+     */
+    public int getRowAt(int y) {
+        int row = y / getTileSize();
+        return y < 0 || row >= gameModel.getHeight() ? -1 : row;
+    }
+
+    /**
+     * Repaints the square at location (i,j).
+     *
+     * @param i the x coordinate of the dot
+     * @param j the y coordinate of the dot
+     */
+    public void repaintDot(int i, int j) {
+        int size = getTileSize();
+        repaint(i * size, j * size, size, size);
+    }
+
+    /**
+     * Paints the squares that intersect the clip of the graphics.
+     * The moves are applied by the engine thread, so the visible squares are read while holding the lock of the model.
+     *
+     * @param g the graphics to paint on
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        IconAtlas atlas = IconAtlas.getInstance();
+        int size = getTileSize();
+        int firstColumn = Math.max(clip.x / size, 0);
+        int lastColumn = Math.min((clip.x + clip.width - 1) / size, gameModel.getWidth() - 1);
+        int firstRow = Math.max(clip.y / size, 0);
+        int lastRow = Math.min((clip.y + clip.height - 1) / size, gameModel.getHeight() - 1);
+        synchronized (gameModel) {
+            for (int j = firstRow; j <= lastRow; j++) {
+                for (int i = firstColumn; i <= lastColumn; i++) {
+                    g.drawImage(atlas.getTile(GameView.getIcon(gameModel, i, j), zoomLevel), i * size, j * size, null);
+                }
+            }
+        }
+    }
+}
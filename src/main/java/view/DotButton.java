@@ -5,7 +5,7 @@ import java.awt.*;
 
 /**
  * In the application Minesweeper, a DotButton is a specialized type of JButton that represents a square in the game.
- * It can have a number of possible icons, which are found in the "icons" directory.
+ * It can have a number of possible icons, which are found in the "icons" directory and loaded by the IconAtlas.
  * The icon expresses the state of the dot: covered, number of neighbouring mines, exploded..
  * The icons have been found on <a href="https://en.wikipedia.org/wiki/Open_content">wikimedia</a>.
  * The author of these icons seems to be someone called <a href="https://commons.wikimedia.org/wiki/User:Cryosta">Kazukiokumura</a>.
@@ -31,11 +31,9 @@ public class DotButton extends JButton {
     public static final int FLAGGED = 12;
 
     /**
-     * An array is used to cache all the images.
-     * Since the images are not modified, all the cells that display the same image reuse the same ImageIcon object.
-     * Notice the use of the keyword static.
+     * Size in pixels of the (square) icons.
      */
-    private static final ImageIcon[] icons = new ImageIcon[NUMBER_OF_ICONS];
+    public static final int ICON_SIZE = 28;
 
     private int iconNumber;
     private int row;
@@ -65,7 +63,7 @@ public class DotButton extends JButton {
      */
     public void setIconNumber(int iconNumber) {
         this.iconNumber = iconNumber;
-        setIcon(getImageIcon());
+        setIcon(getImageIcon(iconNumber));
     }
 
     /**
@@ -87,54 +85,13 @@ public class DotButton extends JButton {
     }
 
     /**
-     * Returns the ImageIcon reference to use based on the current value of the variable iconNumber.
+     * Returns the ImageIcon reference to use for the given iconNumber.
+     * The icons are held by the IconAtlas, so all the cells that display the same image reuse the same ImageIcon object.
      *
-     * @return the image to be displayed by the button
+     * @param iconNumber the iconNumber, based on the predefined constant values defined in this class
+     * @return the image to be displayed for that iconNumber
      */
-    private ImageIcon getImageIcon() {
-        if (icons[iconNumber] == null) {
-            icons[iconNumber] = new ImageIcon(getClass().getResource("/icons/" + getIconFileName()));
-        }
-        return icons[iconNumber];
-    }
-
-    /**
-     * This method returns the name of the file containing the image
-     * corresponding to the current value of the variable iconNumber.
-     *
-     * @return the name of the icon file to be used
-     */
-    private String getIconFileName() {
-        switch (iconNumber) {
-            case 0:
-                return "Minesweeper_0.png";
-            case 1:
-                return "Minesweeper_1.png";
-            case 2:
-                return "Minesweeper_2.png";
-            case 3:
-                return "Minesweeper_3.png";
-            case 4:
-                return "Minesweeper_4.png";
-            case 5:
-                return "Minesweeper_5.png";
-            case 6:
-                return "Minesweeper_6.png";
-            case 7:
-                return "Minesweeper_7.png";
-            case 8:
-                return "Minesweeper_8.png";
-            case 9:
-                return "Minesweeper_mine.png";
-            case 10:
-                return "Minesweeper_mineSelected.png";
-            case 11:
-                return "Minesweeper_unopened_square.png";
-            case 12:
-                return "Minesweeper_flag.png";
-            default:
-                System.out.println("Invalid icon number: " + iconNumber);
-                return "";
-        }
+    static ImageIcon getImageIcon(int iconNumber) {
+        return IconAtlas.getInstance().getIcon(iconNumber);
     }
 }
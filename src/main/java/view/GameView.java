@@ -9,22 +9,37 @@ import java.awt.*;
 /**
  * The class GameView provides the current view of the entire Game.
  * It extends JFrame and lays out a matrix of DotButton (the actual game) and two instances of JButton.
+ * Alternatively, the board can be a single BoardPanel which paints all the squares itself.
+ * It is then scrolled, so boards larger than the screen can be played, with a MiniMap of the whole board next to it.
  * The action listener for the buttons is the controller.
  */
 public class GameView extends JFrame {
 
     private DotButton[][] board;
+    private BoardPanel boardPanel;
+    private MiniMap miniMap;
     private GameModel gameModel;
     private JLabel stepsLabel;
     private JLabel flagsAndMinesLabel;
 
     /**
-     * Constructor used for initializing the Frame.
+     * Constructor used for initializing the Frame, with one DotButton per square.
      *
      * @param gameModel      the model of the game (already initialized)
      * @param gameController the controller
      */
     public GameView(GameModel gameModel, GameController gameController) {
+        this(gameModel, gameController, false);
+    }
+
+    /**
+     * Constructor used for initializing the Frame.
+     *
+     * @param gameModel      the model of the game (already initialized)
+     * @param gameController the controller
+     * @param paintedBoard   true to paint the board in a single BoardPanel, false to use one DotButton per square
+     */
+    public GameView(GameModel gameModel, GameController gameController, boolean paintedBoard) {
         super("Minesweeper");
         this.gameModel = gameModel;
         int width = gameModel.getWidth();
@@ -40,6 +55,9 @@ public class GameView extends JFrame {
         JPanel bottom = new JPanel();
         stepsLabel = new JLabel();
         bottom.add(stepsLabel);
+        JButton hint = new JButton("Hint");
+        hint.addActionListener(gameController);
+        bottom.add(hint);
         JButton reset = new JButton("Reset");
         reset.addActionListener(gameController);
         bottom.add(reset);
@@ -48,24 +66,55 @@ public class GameView extends JFrame {
         bottom.add(quit);
         root.add(bottom, BorderLayout.SOUTH);
 
-        JPanel content = new JPanel(new GridLayout(height, width));
-        board = new DotButton[height][width];
-        for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-                DotButton button = new DotButton(j, i, getIcon(j, i));
-                button.addMouseListener(gameController);
-                button.addActionListener(gameController);
-                content.add(button);
-                board[i][j] = button;
+        if (paintedBoard) {
+            boardPanel = new BoardPanel(gameModel);
+            boardPanel.addMouseListener(gameController);
+            JPanel content = new JPanel(new GridBagLayout());
+            content.add(boardPanel);
+            JScrollPane scrollPane = new JScrollPane(content);
+            scrollPane.getHorizontalScrollBar().setUnitIncrement(DotButton.ICON_SIZE);
+            scrollPane.getVerticalScrollBar().setUnitIncrement(DotButton.ICON_SIZE);
+            root.add(scrollPane, BorderLayout.CENTER);
+            scrollPane.setWheelScrollingEnabled(true);
+            boardPanel.addMouseWheelListener(e -> {
+                if (e.isControlDown()) {
+                    // Ctrl + wheel zooms in and out
+                    boardPanel.setZoomLevel(boardPanel.getZoomLevel() - e.getWheelRotation());
+                    miniMap.repaint();
+                } else {
+                    scrollPane.dispatchEvent(SwingUtilities.convertMouseEvent(boardPanel, e, scrollPane));
+                }
+            });
+            miniMap = new MiniMap(gameModel, boardPanel, scrollPane.getViewport());
+            JPanel side = new JPanel();
+            side.add(miniMap);
+            root.add(side, BorderLayout.EAST);
+        } else {
+            JPanel content = new JPanel(new GridLayout(height, width));
+            board = new DotButton[height][width];
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    DotButton button = new DotButton(j, i, getIcon(gameModel, j, i));
+                    button.addMouseListener(gameController);
+                    button.addActionListener(gameController);
+                    content.add(button);
+                    board[i][j] = button;
+                }
             }
+            root.add(content, BorderLayout.CENTER);
         }
-        root.add(content, BorderLayout.CENTER);
 
         setContentPane(root);
         setDefaultLookAndFeelDecorated(true);
         setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
-        setSize(gameModel.getWidth() * 28, gameModel.getHeight() * 28 + 90);
-        setResizable(false);
+        if (paintedBoard) {
+            Rectangle screen = GraphicsEnvironment.getLocalGraphicsEnvironment().getMaximumWindowBounds();
+            pack();
+            setSize(Math.min(getWidth(), screen.width), Math.min(getHeight(), screen.height));
+        } else {
+            setSize(gameModel.getWidth() * 28, gameModel.getHeight() * 28 + 90);
+            setResizable(false);
+        }
         setLocationRelativeTo(null);
         setVisible(true);
         update();
@@ -73,26 +122,78 @@ public class GameView extends JFrame {
 
     /**
      * Update the status of the board's DotButton instances based on the current game model, then redraws the view.
+     * Only the buttons of the dots that the model recorded as changed are updated and repainted,
+     * unless the whole board has changed (e.g. after a reset).
      */
     public void update() {
         stepsLabel.setText("Number of steps: " + gameModel.getNumberOfSteps());
         flagsAndMinesLabel.setText("Number of mines: " + gameModel.getNumberOfMines() + " | Number of flags: " + gameModel.getNumberOfFlags());
-        for (int i = 0; i < gameModel.getHeight(); i++) {
-            for (int j = 0; j < gameModel.getWidth(); j++) {
-                board[i][j].setIconNumber(getIcon(j, i));
+        if (boardPanel != null) {
+            if (gameModel.isAllChanged()) {
+                boardPanel.repaint();
+            } else {
+                int width = gameModel.getWidth();
+                for (int k = 0; k < gameModel.getNumberOfChanges(); k++) {
+                    int index = gameModel.getChange(k);
+                    boardPanel.repaintDot(index % width, index / width);
+                }
             }
+            if (gameModel.isAllChanged() || gameModel.getNumberOfChanges() > 0) {
+                miniMap.refresh();
+            }
+        } else if (gameModel.isAllChanged()) {
+            for (int i = 0; i < gameModel.getHeight(); i++) {
+                for (int j = 0; j < gameModel.getWidth(); j++) {
+                    board[i][j].setIconNumber(getIcon(gameModel, j, i));
+                }
+            }
+            this.repaint();
+        } else {
+            int width = gameModel.getWidth();
+            for (int k = 0; k < gameModel.getNumberOfChanges(); k++) {
+                int index = gameModel.getChange(k);
+                DotButton button = board[index / width][index % width];
+                button.setIconNumber(getIcon(gameModel, index % width, index / width));
+                button.repaint();
+            }
+        }
+        gameModel.clearChanges();
+    }
+
+    /**
+     * Shows a hint to the player: the square at location (i,j) is brought into view and selected,
+     * and a message tells whether it is safe or only the least likely to be mined.
+     *
+     * @param i           the x coordinate of the dot
+     * @param j           the y coordinate of the dot
+     * @param probability the probability that the dot is mined
+     */
+    public void showHint(int i, int j, double probability) {
+        if (boardPanel != null) {
+            int size = boardPanel.getTileSize();
+            boardPanel.scrollRectToVisible(new Rectangle(i * size, j * size, size, size));
+        } else {
+            board[j][i].requestFocusInWindow();
+        }
+        String message;
+        if (probability == 0) {
+            message = "The square at column " + (i + 1) + ", row " + (j + 1) + " is safe.";
+        } else {
+            message = "No square is certainly safe. The square at column " + (i + 1) + ", row " + (j + 1)
+                    + " has the lowest chance of hiding a mine: " + Math.round(probability * 100) + "%.";
         }
-        this.repaint();
+        JOptionPane.showMessageDialog(this, message, "Hint", JOptionPane.INFORMATION_MESSAGE);
     }
 
     /**
      * Returns the icon value that must be used for a given dot in the game.
      *
-     * @param i the x coordinate of the dot
-     * @param j the y coordinate of the dot
+     * @param gameModel the model of the game
+     * @param i         the x coordinate of the dot
+     * @param j         the y coordinate of the dot
      * @return the icon to use for the dot at location (i,j)
      */
-    private int getIcon(int i, int j) {
+    static int getIcon(GameModel gameModel, int i, int j) {
         if (gameModel.isFlag(i, j)) {
             return DotButton.FLAGGED;
         } else if (gameModel.isCovered(i, j)) {
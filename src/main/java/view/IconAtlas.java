@@ -0,0 +1,188 @@
+package view;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * The class <b>IconAtlas</b> holds all the icons of the game, decoded once and ready to be drawn.
+ * Each icon is converted to the pixel format of the screen, and scaled copies are precomputed for every zoom level,
+ * so that painting the board never decodes nor rescales an image.
+ * The atlas can be built on a background thread at startup with <b>preload</b>; <b>getInstance</b> waits for it.
+ */
+public final class IconAtlas {
+
+    /**
+     * Size in pixels of the icons at each zoom level. DEFAULT_ZOOM_LEVEL is the size of the icon files.
+     */
+    public static final int[] ZOOM_SIZES = {14, 21, 28, 42, 56};
+    public static final int DEFAULT_ZOOM_LEVEL = 2;
+
+    private static FutureTask<IconAtlas> loading;
+
+    private final BufferedImage[][] tiles;
+    private final ImageIcon[] icons;
+    private final long buildTime;
+
+    /**
+     * Constructor used for decoding and scaling all the icons.
+     *
+     * @throws IOException if an icon file cannot be read
+     */
+    private IconAtlas() throws IOException {
+        long start = System.nanoTime();
+        GraphicsConfiguration configuration = GraphicsEnvironment.isHeadless() ? null
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        tiles = new BufferedImage[ZOOM_SIZES.length][DotButton.NUMBER_OF_ICONS];
+        icons = new ImageIcon[DotButton.NUMBER_OF_ICONS];
+        for (int iconNumber = 0; iconNumber < DotButton.NUMBER_OF_ICONS; iconNumber++) {
+            BufferedImage source;
+            try (InputStream input = IconAtlas.class.getResourceAsStream("/icons/" + getIconFileName(iconNumber))) {
+                if (input == null) {
+                    throw new IOException("Missing icon file: " + getIconFileName(iconNumber));
+                }
+                source = ImageIO.read(input);
+            }
+            for (int zoomLevel = 0; zoomLevel < ZOOM_SIZES.length; zoomLevel++) {
+                tiles[zoomLevel][iconNumber] = scale(source, ZOOM_SIZES[zoomLevel], configuration);
+            }
+            icons[iconNumber] = new ImageIcon(tiles[DEFAULT_ZOOM_LEVEL][iconNumber]);
+        }
+        buildTime = System.nanoTime() - start;
+    }
+
+    /**
+     * Starts building the atlas on a background thread, if it is not already built or being built.
+     */
+    public static synchronized void preload() {
+        if (loading == null) {
+            loading = new FutureTask<>(IconAtlas::new);
+            Thread thread = new Thread(loading, "icon-atlas");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Returns the atlas, building it on the calling thread if <b>preload</b> has not been called,
+     * or waiting for the background thread to finish otherwise.
+     *
+     * @return the atlas of icons
+     */
+    public static IconAtlas getInstance() {
+        FutureTask<IconAtlas> task;
+        boolean run = false;
+        synchronized (IconAtlas.class) {
+            if (loading == null) {
+                loading = new FutureTask<>(IconAtlas::new);
+                run = true;
+            }
+            task = loading;
+        }
+        if (run) {
+            task.run();
+        }
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading the icons", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Cannot load the icons", e.getCause());
+        }
+    }
+
+    /**
+     * Returns the image of the given icon at the given zoom level.
+     *
+     * @param iconNumber the iconNumber, based on the predefined constant values defined in DotButton
+     * @param zoomLevel  the zoom level, an index in ZOOM_SIZES
+     * @return the image of the icon
+     */
+    public BufferedImage getTile(int iconNumber, int zoomLevel) {
+        return tiles[zoomLevel][iconNumber];
+    }
+
+    /**
+     * Returns the ImageIcon of the given icon at the default zoom level.
+     * All the cells that display the same image share the same ImageIcon object.
+     *
+     * @param iconNumber the iconNumber, based on the predefined constant values defined in DotButton
+     * @return the icon
+     */
+    public ImageIcon getIcon(int iconNumber) {
+        return icons[iconNumber];
+    }
+
+    /**
+     * Getter method for the time it took to build the atlas.
+     *
+     * @return the build time in milliseconds
+     */
+    public double getBuildTimeMillis() {
+        return buildTime / 1e6;
+    }
+
+    /**
+     * Returns a copy of the image at the given size, in the pixel format of the screen if there is one.
+     *
+     * @param source        the decoded image
+     * @param size          the size of the copy in pixels
+     * @param configuration the configuration of the screen, or null when running headless
+     * @return the scaled copy
+     */
+    private static BufferedImage scale(BufferedImage source, int size, GraphicsConfiguration configuration) {
+        BufferedImage tile = configuration == null ? new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB)
+                : configuration.createCompatibleImage(size, size, Transparency.TRANSLUCENT);
+        Graphics2D g = tile.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(source, 0, 0, size, size, null);
+        g.dispose();
+        return tile;
+    }
+
+    /**
+     * This method returns the name of the file containing the image corresponding to the given iconNumber.
+     *
+     * @param iconNumber the iconNumber, based on the predefined constant values defined in DotButton
+     * @return the name of the icon file to be used
+     */
+    private static String getIconFileName(int iconNumber) {
+        switch (iconNumber) {
+            case 0:
+                return "Minesweeper_0.png";
+            case 1:
+                return "Minesweeper_1.png";
+            case 2:
+                return "Minesweeper_2.png";
+            case 3:
+                return "Minesweeper_3.png";
+            case 4:
+                return "Minesweeper_4.png";
+            case 5:
+                return "Minesweeper_5.png";
+            case 6:
+                return "Minesweeper_6.png";
+            case 7:
+                return "Minesweeper_7.png";
+            case 8:
+                return "Minesweeper_8.png";
+            case 9:
+                return "Minesweeper_mine.png";
+            case 10:
+                return "Minesweeper_mineSelected.png";
+            case 11:
+                return "Minesweeper_unopened_square.png";
+            case 12:
+                return "Minesweeper_flag.png";
+            default:
+                System.out.println("Invalid icon number: " + iconNumber);
+                return "";
+        }
+    }
+}
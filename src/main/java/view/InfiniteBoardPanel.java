@@ -0,0 +1,195 @@
+package view;
+
+import model.ChunkedBoard;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * In the application Minesweeper, an InfiniteBoardPanel paints a window of an unbounded ChunkedBoard,
+ * like a BoardPanel paints a whole GameModel: it draws the tiles of the IconAtlas at the current zoom level,
+ * and only paints the squares inside the clip of the repaint request.
+ * The window is moved by <b>scroll</b>, and keeps its middle in place when the panel is resized.
+ * The panel does not handle the mouse itself: the controller listens to it,
+ * and uses <b>getColumnAt</b> and <b>getRowAt</b> to find the square under the mouse.
+ */
+public class InfiniteBoardPanel extends JComponent {
+
+    private ChunkedBoard board;
+    private int zoomLevel = IconAtlas.DEFAULT_ZOOM_LEVEL;
+    private long centreX;
+    private long centreY;
+
+    /**
+     * Constructor used for initializing an InfiniteBoardPanel for the given board, centred on the dot (0,0).
+     *
+     * @param board  the board of the game
+     * @param width  the preferred width of the panel in pixels
+     * @param height the preferred height of the panel in pixels
+     */
+    public InfiniteBoardPanel(ChunkedBoard board, int width, int height) {
+        this.board = board;
+        setPreferredSize(new Dimension(width, height));
+        setOpaque(true);
+        centreOn(0, 0);
+    }
+
+    /**
+     * Setter method for the board, after a reset. The window is centred on the dot (0,0) again.
+     *
+     * @param board the new board of the game
+     */
+    public void setBoard(ChunkedBoard board) {
+        this.board = board;
+        centreOn(0, 0);
+    }
+
+    /**
+     * Moves the window so that the dot at location (x,y) is in the middle of the panel.
+     *
+     * @param x the x coordinate of the dot
+     * @param y the y coordinate of the dot
+     */
+    public void centreOn(int x, int y) {
+        int size = getTileSize();
+        setCentre((long) x * size + size / 2, (long) y * size + size / 2);
+        repaint();
+    }
+
+    /**
+     * Getter method for the current size in pixels of a square.
+     *
+     * @return the size of a square at the current zoom level
+     */
+    public int getTileSize() {
+        return IconAtlas.ZOOM_SIZES[zoomLevel];
+    }
+
+    /**
+     * Getter method for the current zoom level.
+     *
+     * @return the current zoom level, an index in IconAtlas.ZOOM_SIZES
+     */
+    public int getZoomLevel() {
+        return zoomLevel;
+    }
+
+    /**
+     * Changes the zoom level, keeping the dot in the middle of the panel in place. Levels out of range are clamped.
+     *
+     * @param zoomLevel the new zoom level, an index in IconAtlas.ZOOM_SIZES
+     */
+    public void setZoomLevel(int zoomLevel) {
+        int column = getColumnAt(getWidth() / 2);
+        int row = getRowAt(getHeight() / 2);
+        this.zoomLevel = Math.max(0, Math.min(zoomLevel, IconAtlas.ZOOM_SIZES.length - 1));
+        centreOn(column, row);
+    }
+
+    /**
+     * Moves the window over the board by the given number of pixels, stopping at the edges of the board.
+     *
+     * @param dx the number of pixels to move right, negative to move left
+     * @param dy the number of pixels to move down, negative to move up
+     */
+    public void scroll(int dx, int dy) {
+        setCentre(centreX + dx, centreY + dy);
+        repaint();
+    }
+
+    /**
+     * Returns the column of the square at the given x position (in pixels) in the panel.
+     * The result is only outside the board if the panel was enlarged while at the edge of the board.
+     *
+     * @param x the x position in the panel
+     * @return the x coordinate of the dot
+     */
+    public int getColumnAt(int x) {
+        return (int) Math.floorDiv(getOriginX() + x, getTileSize());
+    }
+
+    /**
+     * Returns the row of the square at the given y position (in pixels) in the panel.
+     * The result is only outside the board if the panel was enlarged while at the edge of the board.
+     *
+     * @param y the y position in the panel
+     * @return the y coordinate of the dot
+     */
+    public int getRowAt(int y) {
+        return (int) Math.floorDiv(getOriginY() + y, getTileSize());
+    }
+
+    /**
+     * Paints the squares that intersect the clip of the graphics.
+     * Reading the board does not create any chunk, so the window can be moved anywhere without filling the memory.
+     *
+     * @param g the graphics to paint on
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        IconAtlas atlas = IconAtlas.getInstance();
+        int size = getTileSize();
+        long originX = getOriginX();
+        long originY = getOriginY();
+        int firstColumn = Math.max(getColumnAt(clip.x), -ChunkedBoard.LIMIT);
+        int lastColumn = Math.min(getColumnAt(clip.x + clip.width - 1), ChunkedBoard.LIMIT - 1);
+        int firstRow = Math.max(getRowAt(clip.y), -ChunkedBoard.LIMIT);
+        int lastRow = Math.min(getRowAt(clip.y + clip.height - 1), ChunkedBoard.LIMIT - 1);
+        for (int j = firstRow; j <= lastRow; j++) {
+            for (int i = firstColumn; i <= lastColumn; i++) {
+                g.drawImage(atlas.getTile(getIcon(board, i, j), zoomLevel),
+                        (int) ((long) i * size - originX), (int) ((long) j * size - originY), null);
+            }
+        }
+    }
+
+
+    /**
+     * Moves the middle of the window to the given position on the board in pixels,
+     * clamped so that the window stays on the board at the current size of the panel.
+     */
+    private void setCentre(long x, long y) {
+        long first = -(long) ChunkedBoard.LIMIT * getTileSize();
+        long last = (long) ChunkedBoard.LIMIT * getTileSize();
+        centreX = Math.max(first + getWidth() / 2, Math.min(x, last - (getWidth() - getWidth() / 2)));
+        centreY = Math.max(first + getHeight() / 2, Math.min(y, last - (getHeight() - getHeight() / 2)));
+    }
+
+    /**
+     * Returns the position on the board in pixels of the left edge of the panel.
+     */
+    private long getOriginX() {
+        return centreX - getWidth() / 2;
+    }
+
+    /**
+     * Returns the position on the board in pixels of the top edge of the panel.
+     */
+    private long getOriginY() {
+        return centreY - getHeight() / 2;
+    }
+
+    /**
+     * Returns the number of the icon of the dot at location (i,j), as <b>GameView.getIcon</b> does for a GameModel.
+     *
+     * @param board the board of the game
+     * @param i     the x coordinate of the dot
+     * @param j     the y coordinate of the dot
+     * @return the number of the icon to show
+     */
+    static int getIcon(ChunkedBoard board, int i, int j) {
+        if (board.isFlag(i, j)) {
+            return DotButton.FLAGGED;
+        } else if (board.isCovered(i, j)) {
+            return DotButton.COVERED;
+        } else if (board.hasBeenClicked(i, j)) {
+            return DotButton.CLICKED_MINE;
+        } else {
+            return board.getNeighbouringMines(i, j);
+        }
+    }
+}
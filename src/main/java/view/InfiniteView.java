@@ -0,0 +1,96 @@
+package view;
+
+import controller.InfiniteController;
+import model.ChunkedBoard;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * The class InfiniteView provides the view of a game played on an unbounded ChunkedBoard.
+ * It extends JFrame and lays out an InfiniteBoardPanel, which is moved over the board by dragging it,
+ * and three instances of JButton. The listener for the panel and the buttons is the controller.
+ */
+public class InfiniteView extends JFrame {
+
+    private ChunkedBoard board;
+    private InfiniteBoardPanel boardPanel;
+    private JLabel uncoveredAndFlagsLabel;
+    private JLabel chunksLabel;
+
+    /**
+     * Constructor used for initializing the Frame.
+     *
+     * @param board      the board of the game
+     * @param controller the controller
+     */
+    public InfiniteView(ChunkedBoard board, InfiniteController controller) {
+        super("Minesweeper");
+        this.board = board;
+
+        JPanel root = new JPanel(new BorderLayout());
+
+        JPanel top = new JPanel();
+        uncoveredAndFlagsLabel = new JLabel();
+        top.add(uncoveredAndFlagsLabel);
+        root.add(top, BorderLayout.NORTH);
+
+        JPanel bottom = new JPanel();
+        chunksLabel = new JLabel();
+        bottom.add(chunksLabel);
+        JButton centre = new JButton("Centre");
+        centre.addActionListener(controller);
+        bottom.add(centre);
+        JButton reset = new JButton("Reset");
+        reset.addActionListener(controller);
+        bottom.add(reset);
+        JButton quit = new JButton("Quit");
+        quit.addActionListener(controller);
+        bottom.add(quit);
+        root.add(bottom, BorderLayout.SOUTH);
+
+        Rectangle screen = GraphicsEnvironment.getLocalGraphicsEnvironment().getMaximumWindowBounds();
+        boardPanel = new InfiniteBoardPanel(board, screen.width * 2 / 3, screen.height * 2 / 3);
+        boardPanel.addMouseListener(controller);
+        boardPanel.addMouseMotionListener(controller);
+        boardPanel.addMouseWheelListener(controller);
+        root.add(boardPanel, BorderLayout.CENTER);
+
+        setContentPane(root);
+        setDefaultLookAndFeelDecorated(true);
+        setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
+        pack();
+        setLocationRelativeTo(null);
+        setVisible(true);
+        update();
+    }
+
+    /**
+     * Getter method for the panel that paints the board.
+     *
+     * @return the panel of the board
+     */
+    public InfiniteBoardPanel getBoardPanel() {
+        return boardPanel;
+    }
+
+    /**
+     * Setter method for the board, after a reset.
+     *
+     * @param board the new board of the game
+     */
+    public void setBoard(ChunkedBoard board) {
+        this.board = board;
+        boardPanel.setBoard(board);
+        update();
+    }
+
+    /**
+     * Updates the labels from the current board, then repaints the visible part of the board.
+     */
+    public void update() {
+        uncoveredAndFlagsLabel.setText("Dots uncovered: " + board.getNumberUncovered() + " | Number of flags: " + board.getNumberOfFlags());
+        chunksLabel.setText("Chunks in memory: " + board.getNumberOfResidentChunks() + " | Chunks spilled: " + board.getNumberOfSpilledChunks());
+        boardPanel.repaint();
+    }
+}
@@ -0,0 +1,131 @@
+package view;
+
+import model.GameModel;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+
+/**
+ * In the application Minesweeper, a MiniMap is a small overview of the whole board, shown next to a scrolled BoardPanel.
+ * Each pixel of the overview samples one square of the block of squares it covers, so rebuilding it costs
+ * the size of the overview, not the size of the board. The visible part of the board is outlined,
+ * and clicking on the overview scrolls the board to that position.
+ */
+public class MiniMap extends JComponent {
+
+    private static final int MAX_SIZE = 160;
+    private static final int COVERED_COLOR = 0xB9B9B9;
+    private static final int UNCOVERED_COLOR = 0xF0F0F0;
+    private static final int NUMBER_COLOR = 0x7F9FDF;
+    private static final int FLAG_COLOR = 0xE02020;
+    private static final int MINE_COLOR = 0x202020;
+
+    private GameModel gameModel;
+    private BoardPanel boardPanel;
+    private JViewport viewport;
+    private BufferedImage image;
+    private double scale;
+
+    /**
+     * Constructor used for initializing a MiniMap of the given model, following the given viewport.
+     *
+     * @param gameModel  the model of the game
+     * @param boardPanel the board shown in the viewport
+     * @param viewport   the viewport in which the BoardPanel is scrolled
+     */
+    public MiniMap(GameModel gameModel, BoardPanel boardPanel, JViewport viewport) {
+        this.gameModel = gameModel;
+        this.boardPanel = boardPanel;
+        this.viewport = viewport;
+        scale = Math.min(1.0, (double) MAX_SIZE / Math.max(gameModel.getWidth(), gameModel.getHeight()));
+        int width = Math.max(1, (int) (gameModel.getWidth() * scale));
+        int height = Math.max(1, (int) (gameModel.getHeight() * scale));
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        setPreferredSize(new Dimension(width, height));
+        viewport.addChangeListener(e -> repaint());
+        MouseAdapter scroller = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                scrollTo(e.getX(), e.getY());
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                scrollTo(e.getX(), e.getY());
+            }
+        };
+        addMouseListener(scroller);
+        addMouseMotionListener(scroller);
+        refresh();
+    }
+
+    /**
+     * Rebuilds the overview from the current state of the model, then repaints it.
+     */
+    public void refresh() {
+        for (int y = 0; y < image.getHeight(); y++) {
+            int j = Math.min((int) ((y + 0.5) / scale), gameModel.getHeight() - 1);
+            for (int x = 0; x < image.getWidth(); x++) {
+                int i = Math.min((int) ((x + 0.5) / scale), gameModel.getWidth() - 1);
+                image.setRGB(x, y, getColor(i, j));
+            }
+        }
+        repaint();
+    }
+
+    /**
+     * Returns the color of the overview for the dot at location (i,j).
+     *
+     * @param i the x coordinate of the dot
+     * @param j the y coordinate of the dot
+     * @return the RGB color of the dot
+     */
+    private int getColor(int i, int j) {
+        if (gameModel.isFlag(i, j)) {
+            return FLAG_COLOR;
+        } else if (gameModel.isCovered(i, j)) {
+            return COVERED_COLOR;
+        } else if (gameModel.isMined(i, j)) {
+            return MINE_COLOR;
+        } else if (gameModel.isBlank(i, j)) {
+            return UNCOVERED_COLOR;
+        } else {
+            return NUMBER_COLOR;
+        }
+    }
+
+    /**
+     * Scrolls the board so that the square under the given position of the overview is in the middle of the viewport.
+     *
+     * @param x the x position in the overview
+     * @param y the y position in the overview
+     */
+    private void scrollTo(int x, int y) {
+        Dimension extent = viewport.getExtentSize();
+        Dimension view = viewport.getViewSize();
+        double pixelsPerPoint = boardPanel.getTileSize() / scale;
+        int left = (int) (x * pixelsPerPoint) - extent.width / 2;
+        int top = (int) (y * pixelsPerPoint) - extent.height / 2;
+        left = Math.max(0, Math.min(left, view.width - extent.width));
+        top = Math.max(0, Math.min(top, view.height - extent.height));
+        viewport.setViewPosition(new Point(left, top));
+    }
+
+    /**
+     * Paints the overview and outlines the visible part of the board.
+     *
+     * @param g the graphics to paint on
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.drawImage(image, 0, 0, null);
+        Rectangle visible = viewport.getViewRect();
+        double pointsPerPixel = scale / boardPanel.getTileSize();
+        g.setColor(Color.RED);
+        g.drawRect((int) (visible.x * pointsPerPixel), (int) (visible.y * pointsPerPixel),
+                Math.max(1, (int) (visible.width * pointsPerPixel) - 1), Math.max(1, (int) (visible.height * pointsPerPixel) - 1));
+    }
+}